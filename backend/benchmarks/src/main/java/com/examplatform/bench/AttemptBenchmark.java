@@ -0,0 +1,71 @@
+package com.examplatform.bench;
+
+import com.examplatform.dto.ExamPayload;
+import com.examplatform.model.Exam;
+import com.examplatform.model.Question;
+import com.examplatform.service.ExamPayloadCache;
+import com.examplatform.service.QuestionSampler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building an attempt the way StudentServiceImpl does: QuestionSampler.sample draws its
+ * questions, and ExamPayloadCache.forAttempt assembles its JSON body from the exam's
+ * pre-rendered fragments. The exam is rendered once in setup, as it is on the first
+ * request after publishing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttemptBenchmark {
+
+    @Param({"100", "500"})
+    int pool;
+
+    @Param({"20", "50"})
+    int perAttempt;
+
+    private ExamPayloadCache payloads;
+    private long[] poolIds;
+    private List<Long> issued;
+    private long seed;
+
+    @Setup
+    public void setup() {
+        Exam exam = Fixtures.exam(42L, pool, Fixtures.course(7L, 30));
+        payloads = new ExamPayloadCache(Fixtures.examRepository(exam), new ObjectMapper().findAndRegisterModules(),
+                Fixtures.noTransactions());
+        poolIds = exam.getQuestions().stream().mapToLong(Question::getId).sorted().toArray();
+        issued = toList(QuestionSampler.sample(poolIds, perAttempt, 99L));
+        payloads.forAttempt(42L, 1L, issued);
+    }
+
+    @Benchmark
+    public long[] sample() {
+        return QuestionSampler.sample(poolIds, perAttempt, seed++);
+    }
+
+    @Benchmark
+    public ExamPayload forAttempt() {
+        return payloads.forAttempt(42L, seed++, issued);
+    }
+
+    @Benchmark
+    public ExamPayload sampleAndAssemble() {
+        long attempt = seed++;
+        return payloads.forAttempt(42L, attempt, toList(QuestionSampler.sample(poolIds, perAttempt, attempt)));
+    }
+
+    private static List<Long> toList(long[] ids) {
+        List<Long> list = new ArrayList<>(ids.length);
+        for (long id : ids) list.add(id);
+        return list;
+    }
+}
@@ -0,0 +1,157 @@
+package com.examplatform.bench;
+
+import com.examplatform.model.Course;
+import com.examplatform.model.Exam;
+import com.examplatform.model.OptionValue;
+import com.examplatform.model.Question;
+import com.examplatform.model.Role;
+import com.examplatform.model.User;
+import com.examplatform.projection.AnswerKeyRow;
+import com.examplatform.repository.ExamRepository;
+import com.examplatform.repository.QuestionRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+/** Deterministic, production-sized object graphs shared by the benchmarks. */
+final class Fixtures {
+
+    static final int OPTIONS_PER_QUESTION = 4;
+
+    private Fixtures() {}
+
+    static Course course(long id, int students) {
+        Role studentRole = role(3L, "STUDENT");
+        Role instructorRole = role(2L, "INSTRUCTOR");
+        Course course = new Course();
+        course.setId(id);
+        course.setName("Course " + id);
+        course.setDescription("Introductory course " + id + " covering the fundamentals, weekly quizzes and a final exam.");
+        course.setCapacity(students);
+        course.setInstructors(List.of(user(1_000_000L + id, instructorRole)));
+        List<User> enrolled = new ArrayList<>(students);
+        for (int i = 0; i < students; i++) {
+            enrolled.add(user(id * 100_000L + i, studentRole));
+        }
+        course.setEnrolledStudents(enrolled);
+        return course;
+    }
+
+    static Exam exam(long id, int questionCount, Course course) {
+        SplittableRandom random = new SplittableRandom(id);
+        Exam exam = new Exam();
+        exam.setId(id);
+        exam.setTitle("Midterm " + id);
+        exam.setCourse(course);
+        exam.setDuration(90);
+        exam.setTotalScore(questionCount * 2);
+        exam.setMaxAttempts(1);
+        exam.setPublished(true);
+        List<Question> questions = new ArrayList<>(questionCount);
+        for (int q = 0; q < questionCount; q++) {
+            int correct = random.nextInt(OPTIONS_PER_QUESTION);
+            List<OptionValue> options = new ArrayList<>(OPTIONS_PER_QUESTION);
+            for (int o = 0; o < OPTIONS_PER_QUESTION; o++) {
+                options.add(new OptionValue(o == correct, "Option " + (char) ('A' + o) + " for question " + q));
+            }
+            Question question = new Question();
+            question.setId(id * 10_000L + q);
+            question.setText("Question " + q + ": which of the following statements about topic " + (q % 17) + " is correct?");
+            question.setOptions(options);
+            question.setCorrectAnswer(options.get(correct).getOptionText());
+            question.setMarks(2);
+            question.setExam(exam);
+            questions.add(question);
+        }
+        exam.setQuestions(questions);
+        return exam;
+    }
+
+    /** Submitted answers in a shuffled order, about {@code correctRatio} of them right. */
+    static List<String> answers(Exam exam, List<Long> order, double correctRatio, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<String> answers = new ArrayList<>(order.size());
+        for (Long questionId : order) {
+            Question q = exam.getQuestions().stream().filter(x -> x.getId().equals(questionId)).findFirst().orElseThrow();
+            // Students' browsers send the option text back, sometimes with stray whitespace or case changes
+            answers.add(random.nextDouble() < correctRatio ? " " + q.getCorrectAnswer().toUpperCase() : "Option Z");
+        }
+        return answers;
+    }
+
+    static List<Long> shuffledIds(Exam exam, long seed) {
+        List<Long> ids = new ArrayList<>();
+        for (Question q : exam.getQuestions()) ids.add(q.getId());
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = ids.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Long tmp = ids.get(i);
+            ids.set(i, ids.get(j));
+            ids.set(j, tmp);
+        }
+        return ids;
+    }
+
+    /** Serves {@code exam} from findById, as the production caches load it; every other call fails. */
+    static ExamRepository examRepository(Exam exam) {
+        return repository(ExamRepository.class, "findById", Optional.of(exam));
+    }
+
+    /** Serves the exam's answer-key projection, as AnswerKeyCache loads it. */
+    static QuestionRepository questionRepository(Exam exam) {
+        List<AnswerKeyRow> rows = new ArrayList<>(exam.getQuestions().size());
+        for (Question q : exam.getQuestions()) {
+            rows.add(new AnswerKeyRow() {
+                public Long getId() { return q.getId(); }
+                public String getCorrectAnswer() { return q.getCorrectAnswer(); }
+                public int getMarks() { return q.getMarks(); }
+            });
+        }
+        return repository(QuestionRepository.class, "findAnswerKeyByExamId", rows);
+    }
+
+    /** The caches open a read-only transaction around their load; there is no database here. */
+    static PlatformTransactionManager noTransactions() {
+        return new PlatformTransactionManager() {
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+            public void commit(TransactionStatus status) {}
+            public void rollback(TransactionStatus status) {}
+        };
+    }
+
+    private static <R> R repository(Class<R> type, String method, Object result) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, m, args) -> {
+            if (m.getName().equals(method)) {
+                return result;
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + m.getName());
+        }));
+    }
+
+    private static Role role(long id, String name) {
+        Role role = new Role();
+        role.setRoleId(id);
+        role.setRoleName(name);
+        return role;
+    }
+
+    private static User user(long id, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.edu");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3aBv8cY.3Xk8Yq0rQ9Yy7yG");
+        user.setFirstName("First" + id);
+        user.setLastName("Last" + id);
+        user.setRole(role);
+        return user;
+    }
+}
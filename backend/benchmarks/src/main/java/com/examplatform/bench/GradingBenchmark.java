@@ -0,0 +1,54 @@
+package com.examplatform.bench;
+
+import com.examplatform.model.Exam;
+import com.examplatform.service.AnswerKey;
+import com.examplatform.service.AnswerKeyCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grading a submission against a compiled {@link AnswerKey}, i.e. the loop that
+ * StudentServiceImpl.submitExam runs per request, plus compiling the key itself through
+ * {@link AnswerKeyCache}. The compile benchmark uses an unpublished copy of the exam,
+ * which the cache never keeps, so every call goes through its miss path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradingBenchmark {
+
+    @Param({"20", "100", "500"})
+    int questions;
+
+    private AnswerKey key;
+    private AnswerKeyCache uncached;
+    private List<Long> submittedIds;
+    private List<String> answers;
+
+    @Setup
+    public void setup() {
+        Exam exam = Fixtures.exam(42L, questions, Fixtures.course(7L, 30));
+        key = new AnswerKeyCache(Fixtures.examRepository(exam), Fixtures.questionRepository(exam)).get(42L);
+        submittedIds = Fixtures.shuffledIds(exam, 1L);
+        answers = Fixtures.answers(exam, submittedIds, 0.7, 2L);
+
+        Exam draft = Fixtures.exam(42L, questions, Fixtures.course(7L, 30));
+        draft.setPublished(false);
+        uncached = new AnswerKeyCache(Fixtures.examRepository(draft), Fixtures.questionRepository(draft));
+    }
+
+    @Benchmark
+    public int grade() {
+        return key.grade(submittedIds, answers);
+    }
+
+    @Benchmark
+    public AnswerKey compileKey() {
+        return uncached.get(42L);
+    }
+}
@@ -0,0 +1,66 @@
+package com.examplatform.bench;
+
+import com.examplatform.security.JwtPrincipal;
+import com.examplatform.security.JwtService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and the per-request check JwtAuthFilter performs. The filter calls
+ * verify once per request, so {@link #verifyCached} (same token again) and
+ * {@link #verifyUncached} (first request with a token) are the numbers that matter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-0123456789";
+
+    private JwtService jwtService;
+    private JwtService cachingJwtService;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService(SECRET);
+        cachingJwtService = new JwtService(SECRET, 100_000);
+        token = jwtService.issue("student42@example.edu", List.of("ROLE_STUDENT"), Duration.ofHours(1));
+    }
+
+    @Benchmark
+    public String issue() {
+        return jwtService.issue("student42@example.edu", List.of("ROLE_STUDENT"), Duration.ofHours(1));
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return jwtService.isValid(token);
+    }
+
+    @Benchmark
+    public String subject() {
+        return jwtService.subject(token);
+    }
+
+    @Benchmark
+    public List<String> roles() {
+        return jwtService.roles(token);
+    }
+
+    @Benchmark
+    public JwtPrincipal verifyUncached() {
+        return jwtService.verify(token);
+    }
+
+    @Benchmark
+    public JwtPrincipal verifyCached() {
+        return cachingJwtService.verify(token);
+    }
+}
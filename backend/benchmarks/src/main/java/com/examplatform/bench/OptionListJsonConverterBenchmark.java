@@ -0,0 +1,44 @@
+package com.examplatform.bench;
+
+import com.examplatform.model.OptionListJsonConverter;
+import com.examplatform.model.OptionValue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** The options column round trip, run once per question whenever questions are loaded or saved. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OptionListJsonConverterBenchmark {
+
+    @Param({"4", "8"})
+    int options;
+
+    private final OptionListJsonConverter converter = new OptionListJsonConverter();
+    private List<OptionValue> values;
+    private String json;
+
+    @Setup
+    public void setup() {
+        values = new java.util.ArrayList<>();
+        for (int i = 0; i < options; i++) {
+            values.add(new OptionValue(i == 1, "Option " + (char) ('A' + i) + ": a plausible but wordy distractor"));
+        }
+        json = converter.convertToDatabaseColumn(values);
+    }
+
+    @Benchmark
+    public String toDatabaseColumn() {
+        return converter.convertToDatabaseColumn(values);
+    }
+
+    @Benchmark
+    public List<OptionValue> toEntityAttribute() {
+        return converter.convertToEntityAttribute(json);
+    }
+}
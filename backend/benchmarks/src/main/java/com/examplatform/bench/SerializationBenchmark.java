@@ -0,0 +1,62 @@
+package com.examplatform.bench;
+
+import com.examplatform.dto.ExamPayload;
+import com.examplatform.model.Course;
+import com.examplatform.model.Exam;
+import com.examplatform.service.ExamPayloadCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of what the controllers return, with a mapper configured like
+ * Spring Boot's default one: the course entity graphs, and the student exam view, which
+ * ExamPayloadCache renders into fragments once per published exam version (measured
+ * here on a fresh cache, i.e. the first request after a publish or edit).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20", "100"})
+    int questions;
+
+    @Param({"30", "300"})
+    int students;
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    private Exam exam;
+    private List<Long> issued;
+    private Course course;
+    private List<Course> catalog;
+
+    @Setup
+    public void setup() {
+        course = Fixtures.course(7L, students);
+        exam = Fixtures.exam(42L, questions, course);
+        issued = Fixtures.shuffledIds(exam, 1L).subList(0, Math.min(20, questions));
+        catalog = List.of(course, Fixtures.course(8L, students), Fixtures.course(9L, students));
+    }
+
+    @Benchmark
+    public ExamPayload examPayload() {
+        return new ExamPayloadCache(Fixtures.examRepository(exam), mapper, Fixtures.noTransactions())
+                .forAttempt(42L, 1L, issued);
+    }
+
+    @Benchmark
+    public byte[] course() throws Exception {
+        return mapper.writeValueAsBytes(course);
+    }
+
+    @Benchmark
+    public byte[] courseList() throws Exception {
+        return mapper.writeValueAsBytes(catalog);
+    }
+}
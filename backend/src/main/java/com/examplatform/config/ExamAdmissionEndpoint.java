@@ -0,0 +1,27 @@
+package com.examplatform.config;
+
+import com.examplatform.service.ExamAdmissionControl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/** {@code /actuator/admission}: limits and current occupancy of the exam admission gates. */
+@Component
+@Endpoint(id = "admission")
+public class ExamAdmissionEndpoint {
+
+    private final ExamAdmissionControl admissionControl;
+
+    @Autowired
+    public ExamAdmissionEndpoint(ExamAdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @ReadOperation
+    public Map<String, Object> admission() {
+        return admissionControl.snapshot();
+    }
+}
@@ -0,0 +1,48 @@
+package com.examplatform.config;
+
+import com.examplatform.service.ExamAdmissionControl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Puts the exam start and submit endpoints behind {@link ExamAdmissionControl}.
+ * A rejection is thrown from preHandle so GlobalExceptionHandler turns it into a 429.
+ */
+@Component
+public class ExamAdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String TICKET = ExamAdmissionInterceptor.class.getName() + ".ticket";
+
+    private final ExamAdmissionControl admissionControl;
+
+    @Autowired
+    public ExamAdmissionInterceptor(ExamAdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> vars = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String examId = vars != null ? vars.get("examId") : null;
+        if (examId != null && examId.chars().allMatch(Character::isDigit)) {
+            request.setAttribute(TICKET, admissionControl.admit(Long.valueOf(examId)));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object ticket = request.getAttribute(TICKET);
+        if (ticket != null) {
+            request.removeAttribute(TICKET);
+            ((ExamAdmissionControl.Ticket) ticket).release();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.examplatform.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * exam_result ids used to come from AUTO_INCREMENT. On MySQL Hibernate emulates the
+ * exam_result_seq sequence with a one-row table that starts at 1, so move it past the
+ * existing rows once to avoid handing out ids that are already taken.
+ */
+@Slf4j
+@Component
+public class ExamResultSequenceInitializer implements CommandLineRunner {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from exam_result", Long.class);
+        if (maxId == null) {
+            return;
+        }
+        long floor = maxId + ALLOCATION_SIZE + 1;
+        try {
+            int updated = jdbcTemplate.update(
+                    "update exam_result_seq set next_val = ? where next_val < ?", floor, floor);
+            if (updated > 0) {
+                log.info("Moved exam_result_seq past existing results to {}", floor);
+            }
+        } catch (DataAccessException e) {
+            // Native sequences (H2, etc.) are only used for fresh schemas.
+            log.warn("Could not align exam_result_seq with max(id)={}: {}", maxId, e.getMessage());
+        }
+    }
+}
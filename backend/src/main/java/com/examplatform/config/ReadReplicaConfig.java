@@ -0,0 +1,72 @@
+package com.examplatform.config;
+
+import com.examplatform.service.ReadYourWritesGuard;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces the auto-configured pool with a primary and a replica pool behind
+ * {@link ReadReplicaRoutingDataSource}, when {@code spring.datasource.replica.url} is set.
+ * The primary keeps the usual spring.datasource.* settings; the replica reads
+ * spring.datasource.replica.* (pool settings under spring.datasource.replica.hikari.*).
+ *
+ * The pools are not autowire candidates, so JPA, JdbcTemplate and the actuator only
+ * see the routing data source; pool metrics are registered here instead.
+ */
+@Configuration
+@ConditionalOnProperty("spring.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    @Bean(autowireCandidate = false)
+    public HikariDataSource primaryPool(DataSourceProperties properties, Environment environment,
+                                        MeterRegistry meterRegistry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("primary");
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+
+    @Bean(autowireCandidate = false)
+    public HikariDataSource replicaPool(Environment environment, MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        DataSourceProperties properties = binder.bind("spring.datasource.replica", DataSourceProperties.class).get();
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("replica");
+        pool.setReadOnly(true);
+        // Start even if the replica is down, and give up on it quickly; reads fall back to the primary
+        pool.setInitializationFailTimeout(-1);
+        pool.setConnectionTimeout(2000);
+        binder.bind("spring.datasource.replica.hikari", Bindable.ofInstance(pool));
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+                                 MeterRegistry meterRegistry, ReadYourWritesGuard guard,
+                                 @Value("${spring.datasource.replica.retry-after-ms:30000}") long retryAfterMs) {
+        Counter fallbacks = Counter.builder("datasource.replica.fallbacks")
+                .description("Read-only connections sent to the primary because the replica was unavailable")
+                .register(meterRegistry);
+        return new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(
+                primaryPool(properties, environment, meterRegistry),
+                replicaPool(environment, meterRegistry),
+                guard, retryAfterMs, fallbacks));
+    }
+}
@@ -0,0 +1,100 @@
+package com.examplatform.config;
+
+import com.examplatform.service.ReadYourWritesGuard;
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out replica connections to read-only service transactions and primary
+ * connections to everything else.
+ *
+ * Spring Data runs plain repository reads in read-only transactions of its own; those
+ * stay on the primary, since they are often the read right after a write. So do
+ * read-only transactions of a user the {@link ReadYourWritesGuard} says just wrote.
+ * If the replica cannot hand out a connection, reads fall back to the primary and the
+ * replica is not tried again for {@code retryAfter}.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction's read-only flag is
+ * only visible once the transaction has started, after the JPA transaction manager has
+ * asked for its connection.
+ */
+@Slf4j
+final class ReadReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final String REPOSITORY_TRANSACTION_PREFIX = "org.springframework.data.";
+
+    @FunctionalInterface
+    private interface Connect {
+        Connection from(DataSource dataSource) throws SQLException;
+    }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReadYourWritesGuard guard;
+    private final long retryAfterNanos;
+    private final Counter fallbacks;
+
+    private volatile boolean replicaDown;
+    private volatile long replicaDownSince;
+
+    ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesGuard guard,
+                                 long retryAfterMs, Counter fallbacks) {
+        this.primary = primary;
+        this.replica = replica;
+        this.guard = guard;
+        this.retryAfterNanos = TimeUnit.MILLISECONDS.toNanos(retryAfterMs);
+        this.fallbacks = fallbacks;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(ds -> ds.getConnection(username, password));
+    }
+
+    boolean routesToReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (name == null || name.startsWith(REPOSITORY_TRANSACTION_PREFIX)) {
+            return false;
+        }
+        if (replicaDown && System.nanoTime() - replicaDownSince < retryAfterNanos) {
+            return false;
+        }
+        return !guard.mustReadPrimary();
+    }
+
+    private Connection connect(Connect connect) throws SQLException {
+        if (routesToReplica()) {
+            try {
+                Connection connection = connect.from(replica);
+                if (replicaDown) {
+                    replicaDown = false;
+                    log.info("Read replica is reachable again");
+                }
+                return connection;
+            } catch (SQLException e) {
+                fallbacks.increment();
+                if (!replicaDown) {
+                    log.warn("Read replica unavailable, sending reads to the primary: {}", e.getMessage());
+                }
+                replicaDownSince = System.nanoTime();
+                replicaDown = true;
+            }
+        }
+        return connect.from(primary);
+    }
+}
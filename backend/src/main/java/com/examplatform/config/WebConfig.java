@@ -1,11 +1,22 @@
 package com.examplatform.config;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ExamAdmissionInterceptor examAdmissionInterceptor;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Override
     public void addCorsMappings(CorsRegistry registry){
         registry.addMapping("/**")
@@ -15,4 +26,23 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowCredentials(true)
                 .maxAge(3600);
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Only the two endpoints a whole class hits at once
+        registry.addInterceptor(examAdmissionInterceptor)
+                .addPathPatterns("/api/students/exams/*", "/api/students/exams/*/submit");
+
+        // Open-session-in-view (spring.jpa.open-in-view is off so it is registered here) holds
+        // the first JDBC connection a request touches until the response is written. Login
+        // waits on the hashing pool and submit waits on the write-behind queue, so those
+        // paths run without it, as does the long-running user import; they return DTOs,
+        // not lazy entity graphs.
+        OpenEntityManagerInViewInterceptor openEntityManagerInView = new OpenEntityManagerInViewInterceptor();
+        openEntityManagerInView.setEntityManagerFactory(entityManagerFactory);
+        registry.addWebRequestInterceptor(openEntityManagerInView)
+                .excludePathPatterns("/api/auth/login", "/api/auth/refresh",
+                        "/api/students/exams/*", "/api/students/exams/*/submit", "/api/students/exams/*/draft",
+                        "/api/admin/users/import");
+    }
 }
@@ -1,13 +1,27 @@
 package com.examplatform.controller;
 
+import com.examplatform.dto.AnalyticsReport;
+import com.examplatform.dto.ImportSummary;
 import com.examplatform.model.User;
 import com.examplatform.model.Role;
+import com.examplatform.projection.CourseCardRow;
 import com.examplatform.repository.RoleRepository;
 import com.examplatform.repository.UserRepository;
 import com.examplatform.service.AdminService;
+import com.examplatform.service.CurrentUserService;
+import com.examplatform.service.UserImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -22,6 +36,15 @@ public class AdminController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CurrentUserService currentUserService;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/instructors")
     public User addInstructor(@RequestBody User instructor) {
         return adminService.addInstructor(instructor);
@@ -37,12 +60,50 @@ public class AdminController {
         return adminService.assignInstructorToCourse(instructorId, courseId);
     }
 
+    // Raising capacity lets the waitlist promoter fill the new seats
+    @PutMapping("/courses/{courseId}/capacity")
+    public CourseCardRow updateCourseCapacity(@PathVariable Long courseId, @RequestParam int capacity) {
+        return adminService.updateCourseCapacity(courseId, capacity);
+    }
+
     // Existing endpoint to list all users
     @GetMapping("/users")
     public List<User> getAllUsers() {
         return adminService.getAllUsers();
     }
 
+    /**
+     * Bulk-create students and instructors from a CSV (text/csv) or NDJSON
+     * (application/x-ndjson) roster. The response is NDJSON: one result per roster
+     * line, flushed after every chunk, then a final {"summary": ...} line.
+     */
+    @PostMapping(value = "/users/import", consumes = {"text/csv", "application/x-ndjson"})
+    public void importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        UserImportService.Format format = contentType.startsWith("text/csv")
+                ? UserImportService.Format.CSV : UserImportService.Format.NDJSON;
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        OutputStream out = response.getOutputStream();
+        ImportSummary summary = userImportService.importUsers(request.getInputStream(), format, results -> {
+            try {
+                for (Object result : results) {
+                    writeLine(out, result);
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writeLine(out, Map.of("summary", summary));
+        out.flush();
+    }
+
+    private void writeLine(OutputStream out, Object value) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(value));
+        out.write('\n');
+    }
+
     // New endpoint: list instructors only
     @GetMapping("/instructors")
     public List<User> getInstructors() {
@@ -61,11 +122,19 @@ public class AdminController {
             // If needed, ensure the password is encoded – or rely on a service layer method
             instructor.setPassword(updatedInstructor.getPassword());
         }
-        return userRepository.save(instructor);
+        User saved = userRepository.save(instructor);
+        currentUserService.evict(saved.getId());
+        return saved;
     }
 
     @GetMapping("/analytics")
     public String getAnalytics() {
         return adminService.getAnalytics();
     }
+
+    // Per-exam attempts, mean, standard deviation, pass rate and score histogram
+    @GetMapping("/analytics/exams")
+    public AnalyticsReport getExamAnalytics() {
+        return adminService.getExamAnalytics();
+    }
 }
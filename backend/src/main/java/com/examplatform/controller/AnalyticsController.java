@@ -1,10 +1,15 @@
 package com.examplatform.controller;
 
+import com.examplatform.dto.KeysetPage;
 import com.examplatform.projection.StudentCourseGpaRow;
 import com.examplatform.service.AnalyticsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 
 
@@ -12,16 +17,49 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/admin")
 public class AnalyticsController {
+    private static final List<ExportWriter.Column<StudentCourseGpaRow>> GPA_COLUMNS = List.of(
+            new ExportWriter.Column<>("studentId", StudentCourseGpaRow::getStudentId),
+            new ExportWriter.Column<>("studentName", StudentCourseGpaRow::getStudentName),
+            new ExportWriter.Column<>("courseId", StudentCourseGpaRow::getCourseId),
+            new ExportWriter.Column<>("courseName", StudentCourseGpaRow::getCourseName),
+            new ExportWriter.Column<>("avgPercent", StudentCourseGpaRow::getAvgPercent),
+            new ExportWriter.Column<>("gpa", StudentCourseGpaRow::getGpa));
+
     private final AnalyticsService service;
-    public AnalyticsController(AnalyticsService service) { this.service = service; }
+    private final ObjectMapper objectMapper;
+    public AnalyticsController(AnalyticsService service, ObjectMapper objectMapper) {
+        this.service = service;
+        this.objectMapper = objectMapper;
+    }
 
     @GetMapping("/gpa")
     public List<StudentCourseGpaRow> gpaAll() { return service.gpaAll(); }
 
+    /** Keyset-paginated GPA rows in (studentId, courseId) order. */
+    @GetMapping("/gpa/page")
+    public KeysetPage<StudentCourseGpaRow> gpaPage(@RequestParam(required = false) String after,
+                                                   @RequestParam(defaultValue = "100") int limit) {
+        return service.gpaPage(after, limit);
+    }
+
+    /** Every GPA row, streamed as NDJSON or CSV. */
+    @GetMapping("/gpa/export")
+    public void exportGpa(@RequestParam(defaultValue = "ndjson") String format,
+                          HttpServletResponse response) throws IOException {
+        ExportWriter<StudentCourseGpaRow> writer = ExportWriter.open(response, format, "gpa", objectMapper, GPA_COLUMNS);
+        service.exportGpa(writer::write);
+        writer.finish();
+    }
+
     @GetMapping("/gpa/by-student")
     public List<StudentCourseGpaRow> gpaByStudent(@RequestParam Long studentId) {
         return service.gpaByStudent(studentId);
     }
 
+    @PostMapping("/gpa/rebuild")
+    public Map<String, Integer> rebuildGpa() {
+        return Map.of("rows", service.rebuildGpa());
+    }
+
 
 }
@@ -2,15 +2,20 @@ package com.examplatform.controller;
 
 import com.examplatform.dto.LoginRequest;
 import com.examplatform.dto.LoginResponse;
+import com.examplatform.dto.RefreshRequest;
 import com.examplatform.exception.ResourceNotFoundException;
 import com.examplatform.model.User;
 import com.examplatform.repository.UserRepository;
 import com.examplatform.service.AuthService;
+import com.examplatform.service.CurrentUserService;
+import com.examplatform.service.RefreshTokenService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "http://localhost:5173")
@@ -25,6 +30,12 @@ public class AuthController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CurrentUserService currentUserService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     // Handles registration for both STUDENT and INSTRUCTOR
     @PostMapping("/register")
     public String registerUser(@RequestBody LoginRequest request) {
@@ -32,17 +43,24 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public LoginResponse login(@RequestBody LoginRequest request) {
+    public CompletableFuture<LoginResponse> login(@RequestBody LoginRequest request) {
         return authService.login(request);
     }
 
+    // Exchanges a refresh token for a new access token and a new refresh token
+    @PostMapping("/refresh")
+    public LoginResponse refresh(@RequestBody RefreshRequest request) {
+        return authService.refresh(request.getRefreshToken());
+    }
+
     @PutMapping("/profile")
     public User updateProfile(@RequestBody User updatedUser) {
         String currentEmail = SecurityContextHolder.getContext().getAuthentication().getName();
         User currentUser = userRepository.findByEmail(currentEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         currentUser.setEmail(updatedUser.getEmail());
-        if (updatedUser.getPassword() != null && !updatedUser.getPassword().isEmpty()){
+        boolean passwordChanged = updatedUser.getPassword() != null && !updatedUser.getPassword().isEmpty();
+        if (passwordChanged){
             currentUser.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
         }
         // Optionally update name fields here
@@ -52,6 +70,12 @@ public class AuthController {
         if (updatedUser.getLastName() != null) {
             currentUser.setLastName(updatedUser.getLastName());
         }
-        return userRepository.save(currentUser);
+        User saved = userRepository.save(currentUser);
+        currentUserService.evict(saved.getId());
+        if (passwordChanged) {
+            // Sessions started with the old password must not be refreshable
+            refreshTokenService.revokeAll(saved.getId());
+        }
+        return saved;
     }
 }
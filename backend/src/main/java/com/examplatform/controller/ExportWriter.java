@@ -0,0 +1,115 @@
+package com.examplatform.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Writes export rows straight to the servlet response as NDJSON or CSV. Nothing is
+ * collected: each row is encoded into a small buffer as it arrives and the buffer is
+ * flushed every {@value #FLUSH_EVERY} rows, so memory stays flat whatever the row count.
+ */
+final class ExportWriter<T> {
+
+    record Column<T>(String name, Function<T, Object> value) {}
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final OutputStream out;
+    private final boolean csv;
+    private final List<Column<T>> columns;
+    private final ObjectMapper objectMapper;
+    private int pending;
+
+    private ExportWriter(OutputStream out, boolean csv, List<Column<T>> columns, ObjectMapper objectMapper) {
+        this.out = out;
+        this.csv = csv;
+        this.columns = columns;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Set the response headers for {@code format} ("ndjson" or "csv") and, for CSV,
+     * write the header line.
+     *
+     * @throws IllegalArgumentException for any other format, before anything is written
+     */
+    static <T> ExportWriter<T> open(HttpServletResponse response, String format, String filename,
+                                    ObjectMapper objectMapper, List<Column<T>> columns) throws IOException {
+        boolean csv;
+        if ("csv".equalsIgnoreCase(format)) {
+            csv = true;
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + ".csv\"");
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            csv = false;
+            response.setContentType("application/x-ndjson;charset=UTF-8");
+        } else {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+        ExportWriter<T> writer = new ExportWriter<>(
+                new BufferedOutputStream(response.getOutputStream(), 16 * 1024), csv, columns, objectMapper);
+        if (csv) {
+            StringBuilder header = new StringBuilder();
+            for (Column<T> column : columns) {
+                writer.appendCsv(header, column.name());
+            }
+            writer.writeLine(header);
+        }
+        return writer;
+    }
+
+    void write(T row) {
+        try {
+            if (csv) {
+                StringBuilder line = new StringBuilder();
+                for (Column<T> column : columns) {
+                    appendCsv(line, column.value().apply(row));
+                }
+                writeLine(line);
+            } else {
+                Map<String, Object> fields = new LinkedHashMap<>();
+                for (Column<T> column : columns) {
+                    fields.put(column.name(), column.value().apply(row));
+                }
+                out.write(objectMapper.writeValueAsBytes(fields));
+                out.write('\n');
+            }
+            if (++pending >= FLUSH_EVERY) {
+                out.flush();
+                pending = 0;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void finish() throws IOException {
+        out.flush();
+    }
+
+    private void writeLine(StringBuilder line) throws IOException {
+        line.setCharAt(line.length() - 1, '\n'); // replace the trailing separator
+        out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void appendCsv(StringBuilder line, Object value) {
+        String text = value == null ? "" : value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            line.append('"').append(text.replace("\"", "\"\"")).append('"');
+        } else {
+            line.append(text);
+        }
+        line.append(',');
+    }
+}
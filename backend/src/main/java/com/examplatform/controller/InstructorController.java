@@ -8,17 +8,35 @@ import com.examplatform.service.InstructorService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import com.examplatform.dto.ExamWithQuestionsDTO;
+import com.examplatform.dto.KeysetPage;
+import com.examplatform.dto.ScoreDistribution;
+import com.examplatform.projection.ExamResultRow;
+import com.examplatform.projection.InstructorExamRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/instructor")
 public class InstructorController {
 
+    private static final List<ExportWriter.Column<ExamResultRow>> RESULT_COLUMNS = List.of(
+            new ExportWriter.Column<>("id", ExamResultRow::getId),
+            new ExportWriter.Column<>("studentId", ExamResultRow::getStudentId),
+            new ExportWriter.Column<>("studentName", ExamResultRow::getStudentName),
+            new ExportWriter.Column<>("studentEmail", ExamResultRow::getStudentEmail),
+            new ExportWriter.Column<>("score", ExamResultRow::getScore),
+            new ExportWriter.Column<>("status", ExamResultRow::getStatus));
+
     @Autowired
     private InstructorService instructorService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/courses")
     public Course createCourse(@RequestBody Course course) {
         return instructorService.createCourse(course);
@@ -59,9 +77,17 @@ public class InstructorController {
         return instructorService.unpublishExam(examId);
     }
 
+    // Newest first with submission statistics; ?published=true|false filters, nextCursor goes back as `after`
     @GetMapping("/exams")
-    public List<Exam> getMyExams() {
-        return instructorService.getAllExamsForInstructor();
+    public KeysetPage<InstructorExamRow> getMyExams(@RequestParam(required = false) Boolean published,
+                                                    @RequestParam(required = false) String after,
+                                                    @RequestParam(defaultValue = "100") int limit) {
+        return instructorService.getExamsForInstructor(published, after, limit);
+    }
+
+    @GetMapping("/exams/{examId}")
+    public Exam getExam(@PathVariable Long examId) {
+        return instructorService.getExam(examId);
     }
 
     @GetMapping("/exams/{examId}/results")
@@ -69,6 +95,32 @@ public class InstructorController {
         return instructorService.getExamResults(examId);
     }
 
+    // Keyset-paginated results in id order; pass nextCursor back as `after`
+    @GetMapping("/exams/{examId}/results/page")
+    public KeysetPage<ExamResultRow> getExamResultsPage(@PathVariable Long examId,
+                                                        @RequestParam(required = false) String after,
+                                                        @RequestParam(defaultValue = "100") int limit) {
+        return instructorService.getExamResultsPage(examId, after, limit);
+    }
+
+    // Score percentiles from the exam's score sketch, e.g. ?percentiles=0.5,0.9
+    @GetMapping("/exams/{examId}/score-distribution")
+    public ScoreDistribution getScoreDistribution(@PathVariable Long examId,
+                                                  @RequestParam(defaultValue = "0.25,0.5,0.75,0.9") List<Double> percentiles) {
+        return instructorService.getScoreDistribution(examId, percentiles);
+    }
+
+    // All results streamed as NDJSON or CSV
+    @GetMapping("/exams/{examId}/results/export")
+    public void exportExamResults(@PathVariable Long examId,
+                                  @RequestParam(defaultValue = "ndjson") String format,
+                                  HttpServletResponse response) throws IOException {
+        ExportWriter<ExamResultRow> writer = ExportWriter.open(response, format, "exam-" + examId + "-results",
+                objectMapper, RESULT_COLUMNS);
+        instructorService.exportExamResults(examId, writer::write);
+        writer.finish();
+    }
+
     @GetMapping("/courses/{courseId}/students")
     public List<User> getEnrolledStudents(@PathVariable Long courseId) {
         return instructorService.getEnrolledStudents(courseId);
@@ -6,6 +6,7 @@ import com.examplatform.model.Exam;
 import com.examplatform.model.Question;
 import com.examplatform.repository.ExamRepository;
 import com.examplatform.repository.QuestionRepository;
+import com.examplatform.service.ExamCacheInvalidator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,6 +20,9 @@ public class QuestionController {
     @Autowired
     private ExamRepository examRepository;
 
+    @Autowired
+    private ExamCacheInvalidator examCacheInvalidator;
+
     @PostMapping
     public Question createQuestion(@RequestBody QuestionDTO questionDTO) {
         // Look up the exam using examId from the DTO
@@ -33,7 +37,9 @@ public class QuestionController {
         // If your Question entity should store codeSnippet and isCodeQuestion,
         // you need to add these fields to the entity as well.
         question.setExam(exam);
-        return questionRepository.save(question);
+        Question saved = questionRepository.save(question);
+        examCacheInvalidator.evict(exam.getId());
+        return saved;
     }
 
     @GetMapping("/exam/{examId}")
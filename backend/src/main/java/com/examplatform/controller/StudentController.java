@@ -1,14 +1,25 @@
 package com.examplatform.controller;
 
+import com.examplatform.dto.EnrollmentStatus;
+import com.examplatform.dto.ExamPayload;
+import com.examplatform.dto.KeysetPage;
+import com.examplatform.dto.LeaderboardEntry;
+import com.examplatform.dto.LeaderboardRank;
+import com.examplatform.dto.SubmissionReceipt;
 import com.examplatform.dto.SubmitExamRequest;
-import com.examplatform.exception.ResourceNotFoundException;
 import com.examplatform.model.Course;
-import com.examplatform.model.Exam;
 import com.examplatform.model.ExamResult;
-import com.examplatform.repository.ExamRepository;
+import com.examplatform.projection.CourseCardRow;
+import com.examplatform.projection.StudentExamRow;
 import com.examplatform.service.StudentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -19,41 +30,92 @@ public class StudentController {
     @Autowired
     private StudentService studentService;
 
-    @Autowired
-    private ExamRepository examRepository;
-
     @GetMapping("/courses")
     public List<Course> getEnrolledCourses() {
         return studentService.getEnrolledCourses();
     }
 
+    // 200 when enrolled; 202 with the waitlist position when the course is full
     @PostMapping("/courses/{courseId}/enroll")
-    public Course enrollInCourse(@PathVariable Long courseId) {
-        return studentService.enrollInCourse(courseId);
+    public ResponseEntity<EnrollmentStatus> enrollInCourse(@PathVariable Long courseId) {
+        EnrollmentStatus status = studentService.enrollInCourse(courseId);
+        return ResponseEntity.status(status.status() == EnrollmentStatus.Status.WAITLISTED
+                ? HttpStatus.ACCEPTED : HttpStatus.OK).body(status);
+    }
+
+    @GetMapping("/courses/{courseId}/enroll")
+    public EnrollmentStatus getEnrollmentStatus(@PathVariable Long courseId) {
+        return studentService.getEnrollmentStatus(courseId);
     }
 
-    // New endpoint: list available courses (not yet enrolled)
+    // Drops the course, or leaves its waitlist
+    @DeleteMapping("/courses/{courseId}/enroll")
+    public void leaveCourse(@PathVariable Long courseId) {
+        studentService.leaveCourse(courseId);
+    }
+
+    // Catalog of courses not yet enrolled in, in id order; q searches name and description,
+    // nextCursor goes back as `after`
     @GetMapping("/courses/available")
-    public List<Course> getAvailableCourses() {
-        return studentService.getAvailableCourses();
+    public KeysetPage<CourseCardRow> getAvailableCourses(@RequestParam(required = false) String q,
+                                                         @RequestParam(required = false) String after,
+                                                         @RequestParam(defaultValue = "50") int limit) {
+        return studentService.getCourseCatalog(q, after, limit);
     }
 
     @GetMapping("/exams")
-    public List<Exam> getAvailableExams() {
+    public List<StudentExamRow> getAvailableExams() {
         return studentService.getAvailableExams();
     }
 
+    // Starts or resumes the attempt; reloads get the same questions, and a reload of an
+    // unchanged exam is answered with 304 from the If-None-Match ETag
     @GetMapping("/exams/{examId}")
-    public Exam getExamDetails(@PathVariable Long examId) {
-        Exam exam = examRepository.findById(examId)
-                .orElseThrow(() -> new ResourceNotFoundException("Exam not found"));
-        return exam.getRandomizedExam();  // Return only the randomized subset of questions
+    public ResponseEntity<byte[]> getExamDetails(@PathVariable Long examId, WebRequest webRequest) {
+        ExamPayload payload = studentService.startExam(examId);
+        if (webRequest.checkNotModified(payload.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(payload.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(payload.body());
     }
 
 
+    // 202 when the result is accepted but not committed yet; it then appears under /results
     @PostMapping("/exams/{examId}/submit")
-    public String submitExam(@PathVariable Long examId, @RequestBody SubmitExamRequest request) {
-        return studentService.submitExam(examId, request.getAnswers(), request.getQuestionIds());
+    public ResponseEntity<String> submitExam(@PathVariable Long examId, @RequestBody SubmitExamRequest request) {
+        SubmissionReceipt receipt = studentService.submitExam(examId, request.getAnswers(), request.getQuestionIds());
+        if (receipt.pending()) {
+            return ResponseEntity.accepted().header(HttpHeaders.LOCATION, "/api/students/results").body(receipt.message());
+        }
+        return ResponseEntity.ok(receipt.message());
+    }
+
+    // Periodic autosave; drafts are coalesced in memory and written in batches
+    @PutMapping("/exams/{examId}/draft")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void saveDraft(@PathVariable Long examId, @RequestBody SubmitExamRequest request) {
+        studentService.saveDraft(examId, request.getAnswers(), request.getQuestionIds());
+    }
+
+    @GetMapping("/exams/{examId}/draft")
+    public SubmitExamRequest getDraft(@PathVariable Long examId) {
+        return studentService.getDraft(examId);
+    }
+
+    @GetMapping("/exams/{examId}/rank")
+    public LeaderboardRank getRank(@PathVariable Long examId) {
+        return studentService.getRank(examId);
+    }
+
+    // Best result per student, highest score first; ties go to the earlier submission
+    @GetMapping("/exams/{examId}/leaderboard")
+    public List<LeaderboardEntry> getLeaderboard(@PathVariable Long examId,
+                                                 @RequestParam(defaultValue = "10") int limit) {
+        return studentService.getLeaderboard(examId, limit);
     }
 
     @GetMapping("/results")
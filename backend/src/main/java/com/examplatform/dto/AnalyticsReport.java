@@ -0,0 +1,14 @@
+package com.examplatform.dto;
+
+import java.util.List;
+
+/**
+ * Exam result statistics computed in the database. Means and standard deviations are
+ * in points; pass rates are fractions. {@code histogram} has ten buckets of 10% of the
+ * exam's total score each, the last one including full marks.
+ */
+public record AnalyticsReport(long results, int exams, double meanScore, double passRate, List<ExamStats> perExam) {
+
+    public record ExamStats(Long examId, String title, int totalScore, long attempts,
+                            double mean, double stdDev, double passRate, long[] histogram) {}
+}
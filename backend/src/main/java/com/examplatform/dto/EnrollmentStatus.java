@@ -0,0 +1,15 @@
+package com.examplatform.dto;
+
+/** Where a student stands in a course: enrolled, or queued at a one-based waitlist position. */
+public record EnrollmentStatus(Long courseId, Status status, Integer waitlistPosition, Integer waitlistSize) {
+
+    public enum Status { ENROLLED, WAITLISTED }
+
+    public static EnrollmentStatus enrolled(Long courseId) {
+        return new EnrollmentStatus(courseId, Status.ENROLLED, null, null);
+    }
+
+    public static EnrollmentStatus waitlisted(Long courseId, int position, int size) {
+        return new EnrollmentStatus(courseId, Status.WAITLISTED, position, size);
+    }
+}
@@ -0,0 +1,4 @@
+package com.examplatform.dto;
+
+/** Pre-rendered JSON for one attempt of an exam, with its strong ETag. */
+public record ExamPayload(byte[] body, String etag) {}
@@ -0,0 +1,7 @@
+package com.examplatform.dto;
+
+/** Outcome of one roster line in a bulk user import. */
+public record ImportRowResult(int line, String email, Status status, Long userId, String message) {
+
+    public enum Status { CREATED, DUPLICATE, INVALID, FAILED }
+}
@@ -0,0 +1,4 @@
+package com.examplatform.dto;
+
+/** Totals written as the last line of a bulk user import. */
+public record ImportSummary(int rows, int created, int duplicates, int invalid, int failed, long elapsedMs) {}
@@ -0,0 +1,17 @@
+package com.examplatform.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. Pass {@code nextCursor} back as
+ * {@code after} to get the following page; it is null on the last page.
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+    public static final int MAX_SIZE = 1000;
+
+    /** The requested page size clamped to 1..{@value #MAX_SIZE}. */
+    public static int size(int requested) {
+        return Math.min(Math.max(requested, 1), MAX_SIZE);
+    }
+}
@@ -0,0 +1,6 @@
+package com.examplatform.dto;
+
+import java.time.Instant;
+
+/** One row of an exam's leaderboard; students are shown by first name and last initial. */
+public record LeaderboardEntry(int rank, String name, int score, Instant submittedAt) {}
@@ -0,0 +1,6 @@
+package com.examplatform.dto;
+
+import java.time.Instant;
+
+/** The current student's place on an exam's leaderboard, by their best result. */
+public record LeaderboardRank(Long examId, int rank, int total, int score, Instant submittedAt) {}
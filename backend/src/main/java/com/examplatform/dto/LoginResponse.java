@@ -10,5 +10,7 @@ public class LoginResponse {
     private String email;
     private String message;
     private String accessToken;
+    private String refreshToken;
+    private long expiresIn;      // access token lifetime in seconds
     private String tokenType = "Bearer";
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.examplatform.dto;
+
+import java.util.Map;
+
+/** Score percentiles for one exam; min, max and percentiles are -1 when there are no results. */
+public record ScoreDistribution(Long examId, long count, int min, int max, double mean,
+                                Map<String, Integer> percentiles) {}
@@ -0,0 +1,7 @@
+package com.examplatform.dto;
+
+/**
+ * Answer to an exam submission. {@code pending} means the result was accepted but not yet
+ * committed when the request stopped waiting; it shows up in the student's results shortly.
+ */
+public record SubmissionReceipt(boolean pending, String message) {}
@@ -0,0 +1,15 @@
+package com.examplatform.exception;
+
+/** Thrown when the server sheds load; mapped to 429 with a Retry-After header. */
+public class TooManyRequestsException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,40 @@
+package com.examplatform.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Attempts a student has used on an exam. One row per (student, exam); the composite
+ * primary key doubles as the uniqueness guarantee, so attempts can be consumed with a
+ * single conditional UPDATE instead of counting exam_result rows.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@IdClass(AttemptLedger.Key.class)
+@Table(name = "exam_attempt_ledger")
+public class AttemptLedger {
+
+    @Id
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Id
+    @Column(name = "exam_id")
+    private Long examId;
+
+    @Column(name = "attempts_used", nullable = false)
+    private int attemptsUsed;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long studentId;
+        private Long examId;
+    }
+}
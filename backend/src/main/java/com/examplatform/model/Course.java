@@ -2,6 +2,7 @@ package com.examplatform.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.List;
 
@@ -21,11 +22,17 @@ public class Course {
     @Column(nullable = false)
     private int capacity = 10;
 
+    // Seats taken, kept by conditional updates in CourseSeatService; never written from the entity
+    @ColumnDefault("0")
+    @Column(name = "enrolled_count", nullable = false, updatable = false)
+    private int enrolledCount;
+
     @ManyToMany
     @JoinTable(
             name = "course_instructor",
             joinColumns = @JoinColumn(name = "course_id"),
-            inverseJoinColumns = @JoinColumn(name = "instructor_id")
+            inverseJoinColumns = @JoinColumn(name = "instructor_id"),
+            indexes = @Index(name = "idx_course_instructor_instructor", columnList = "instructor_id, course_id")
     )
     private List<User> instructors;
 
@@ -33,8 +40,14 @@ public class Course {
     @JoinTable(
             name = "course_student",
             joinColumns = @JoinColumn(name = "course_id"),
-            inverseJoinColumns = @JoinColumn(name = "student_id")
+            inverseJoinColumns = @JoinColumn(name = "student_id"),
+            uniqueConstraints = @UniqueConstraint(name = "uk_course_student", columnNames = {"course_id", "student_id"}),
+            indexes = @Index(name = "idx_course_student_student", columnList = "student_id, course_id")
     )
-
     private List<User> enrolledStudents;
+
+    @PrePersist
+    private void beforePersist() {
+        this.enrolledCount = enrolledStudents != null ? enrolledStudents.size() : 0;
+    }
 }
@@ -1,6 +1,5 @@
 package com.examplatform.model;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
@@ -8,12 +7,12 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 @Data
 @Entity
 @NoArgsConstructor
+@Table(indexes = @Index(name = "idx_exam_course_published", columnList = "course_id, published"))
 public class Exam {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -85,43 +84,4 @@ public class Exam {
             this.passingScore = (int) Math.ceil(this.totalScore * 0.3);
         }
     }
-
-
-
-    @JsonIgnore
-    @Transient
-    public Exam getRandomizedExam() {
-        List<Question> shuffled = new ArrayList<>(questions);
-        Collections.shuffle(shuffled);
-        int num;
-        if (numberOfQuestions > 0) {
-            num = numberOfQuestions;
-        } else if (!shuffled.isEmpty()) {
-            num = totalScore / shuffled.getFirst().getMarks();
-        } else {
-            num = 0;
-        }
-        if (num > 0 && num < shuffled.size()) {
-            shuffled = new ArrayList<>(shuffled.subList(0, num));
-        }
-        Exam randomized = new Exam();
-        randomized.setId(this.id);
-        randomized.setTitle(this.title);
-        randomized.setQuestions(shuffled);
-        randomized.setCourse(this.course);
-        randomized.setDuration(this.duration);
-        randomized.setTotalScore(this.totalScore);
-        randomized.setPassingScore(this.passingScore > 0 ? this.passingScore : (int) Math.ceil(this.totalScore * 0.3));
-        randomized.setPublished(this.published);
-        randomized.setNumberOfQuestions(this.numberOfQuestions);
-        randomized.setMaxAttempts(this.maxAttempts);
-        return randomized;
-    }
-
-
-
-
 }
-
-
-
@@ -0,0 +1,64 @@
+package com.examplatform.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One sitting of an exam: the seed and the questions issued to the student when they
+ * opened it. Reloads return the same questions and grading only accepts these ids.
+ */
+@Data
+@Entity
+@Table(name = "exam_attempt",
+        indexes = @Index(name = "idx_exam_attempt_student_exam", columnList = "student_id, exam_id"))
+public class ExamAttempt {
+
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String SUBMITTED = "SUBMITTED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "exam_id", nullable = false)
+    private Long examId;
+
+    @Column(nullable = false)
+    private long seed;
+
+    @Convert(converter = LongListCsvConverter.class)
+    @Column(name = "question_ids", nullable = false, columnDefinition = "TEXT")
+    private List<Long> questionIds = new ArrayList<>();
+
+    @Column(nullable = false, length = 20)
+    private String status = IN_PROGRESS;
+
+    // "studentId:examId" while in progress, null afterwards; the unique index allows
+    // at most one open attempt per student and exam.
+    @Column(name = "open_key", unique = true, length = 64)
+    private String openKey;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "submitted_at")
+    private Instant submittedAt;
+
+    // Latest autosaved answers as JSON, written in batches by DraftStore.
+    @Column(name = "draft_answers", columnDefinition = "TEXT")
+    private String draftAnswers;
+
+    @Column(name = "draft_saved_at")
+    private Instant draftSavedAt;
+
+    public static String openKey(Long studentId, Long examId) {
+        return studentId + ":" + examId;
+    }
+}
@@ -3,11 +3,16 @@ package com.examplatform.model;
 import jakarta.persistence.*;
 import lombok.Data;
 
+import java.time.Instant;
+
 @Data
 @Entity
+@Table(indexes = @Index(name = "idx_exam_result_exam_id", columnList = "exam_id, id"))
 public class ExamResult {
+    // Pooled sequence (a table on MySQL) instead of IDENTITY so Hibernate can batch inserts.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exam_result_seq")
+    @SequenceGenerator(name = "exam_result_seq", sequenceName = "exam_result_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -18,7 +23,9 @@ public class ExamResult {
     @JoinColumn(name = "exam_id", nullable = false)
     private Exam exam;
 
-
+    // Null on results stored before the column existed
+    @Column(name = "submitted_at")
+    private Instant submittedAt;
 
     @Column(nullable = false)
     private int score;
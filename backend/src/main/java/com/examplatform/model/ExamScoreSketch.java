@@ -0,0 +1,27 @@
+package com.examplatform.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/** Persisted {@link com.examplatform.service.ScoreSketch} for one exam, in its binary form. */
+@Data
+@Entity
+@Table(name = "exam_score_sketch")
+public class ExamScoreSketch {
+
+    @Id
+    @Column(name = "exam_id")
+    private Long examId;
+
+    @Lob
+    @Column(name = "data", nullable = false, length = 1 << 20)
+    private byte[] data;
+
+    @Column(name = "result_count", nullable = false)
+    private long resultCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,34 @@
+package com.examplatform.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Converter(autoApply = false)
+public class LongListCsvConverter implements AttributeConverter<List<Long>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(List<Long> attribute) {
+        if (attribute == null || attribute.isEmpty()) return "";
+        StringBuilder sb = new StringBuilder(attribute.size() * 8);
+        for (int i = 0; i < attribute.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(attribute.get(i));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public List<Long> convertToEntityAttribute(String dbData) {
+        if (dbData == null || dbData.isBlank()) return Collections.emptyList();
+        String[] parts = dbData.split(",");
+        List<Long> ids = new ArrayList<>(parts.length);
+        for (String part : parts) {
+            ids.add(Long.parseLong(part.trim()));
+        }
+        return ids;
+    }
+}
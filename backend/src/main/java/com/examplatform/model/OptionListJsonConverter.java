@@ -29,6 +29,10 @@ public class OptionListJsonConverter implements AttributeConverter<List<OptionVa
     public List<OptionValue> convertToEntityAttribute(String dbData) {
         try {
             if (dbData == null || dbData.isBlank()) return Collections.emptyList();
+            if (dbData.charAt(0) == '"') {
+                // H2's JSON type stores a bound varchar as a JSON string; unwrap it
+                dbData = MAPPER.readValue(dbData, String.class);
+            }
             return MAPPER.readValue(dbData, TYPE);
         } catch (Exception e) {
             return Collections.emptyList(); // tolerate bad rows
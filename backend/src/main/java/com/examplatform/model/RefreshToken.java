@@ -0,0 +1,41 @@
+package com.examplatform.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Opaque refresh token. Only the SHA-256 of the token is stored; each use revokes the
+ * row and issues a new one, so a token is good for exactly one refresh. Every token of
+ * one login carries the same {@code sessionExpiresAt}, past which no rotation is allowed.
+ */
+@Data
+@Entity
+@Table(name = "refresh_token",
+        indexes = @Index(name = "idx_refresh_token_user", columnList = "user_id"))
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    /** Null only on rows written before the column existed; read as createdAt + the session limit. */
+    @Column(name = "session_expires_at")
+    private Instant sessionExpiresAt;
+
+    @Column(name = "revoked_at")
+    private Instant revokedAt;
+}
@@ -0,0 +1,47 @@
+package com.examplatform.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Running totals of a student's exam results in one course, kept in step with
+ * exam_result so GPA reads are a primary-key lookup instead of a grouped join over
+ * every result ever recorded. totalScoreSum adds up each exam's total as it was when
+ * the result was written.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@IdClass(StudentCourseAggregate.Key.class)
+@Table(name = "student_course_aggregate")
+public class StudentCourseAggregate {
+
+    @Id
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Id
+    @Column(name = "course_id")
+    private Long courseId;
+
+    @Column(name = "score_sum", nullable = false)
+    private long scoreSum;
+
+    @Column(name = "total_score_sum", nullable = false)
+    private long totalScoreSum;
+
+    @Column(name = "result_count", nullable = false)
+    private int resultCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long studentId;
+        private Long courseId;
+    }
+}
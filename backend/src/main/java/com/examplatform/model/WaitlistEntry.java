@@ -0,0 +1,38 @@
+package com.examplatform.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A student queued for a seat in a full course. Entries are served in id order; the
+ * unique (course, student) pair means a student holds at most one place per course.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "course_waitlist",
+        uniqueConstraints = @UniqueConstraint(name = "uk_course_waitlist", columnNames = {"course_id", "student_id"}))
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "joined_at", nullable = false)
+    private Instant joinedAt;
+
+    public WaitlistEntry(Long courseId, Long studentId, Instant joinedAt) {
+        this.courseId = courseId;
+        this.studentId = studentId;
+        this.joinedAt = joinedAt;
+    }
+}
@@ -0,0 +1,7 @@
+package com.examplatform.projection;
+
+public interface AnswerKeyRow {
+    Long   getId();
+    String getCorrectAnswer();
+    int    getMarks();
+}
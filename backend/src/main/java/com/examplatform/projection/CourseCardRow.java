@@ -0,0 +1,10 @@
+package com.examplatform.projection;
+
+/** A course as shown in the student catalog. */
+public interface CourseCardRow {
+    Long   getId();
+    String getName();
+    String getDescription();
+    int    getCapacity();
+    int    getSeatsRemaining();
+}
@@ -0,0 +1,10 @@
+package com.examplatform.projection;
+
+public interface ExamResultRow {
+    Long   getId();
+    Long   getStudentId();
+    String getStudentName();
+    String getStudentEmail();
+    int    getScore();
+    String getStatus();
+}
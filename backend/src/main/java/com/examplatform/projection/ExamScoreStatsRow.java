@@ -0,0 +1,11 @@
+package com.examplatform.projection;
+
+public interface ExamScoreStatsRow {
+    Long   getExamId();
+    String getTitle();
+    int    getTotalScore();
+    long   getAttempts();
+    long   getScoreSum();
+    long   getScoreSquareSum();
+    long   getPasses();
+}
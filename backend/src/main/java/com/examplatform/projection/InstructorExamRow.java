@@ -0,0 +1,16 @@
+package com.examplatform.projection;
+
+/** An exam on the instructor's dashboard with its submission statistics; averages are null with no submissions. */
+public interface InstructorExamRow {
+    Long    getId();
+    String  getTitle();
+    Long    getCourseId();
+    String  getCourseName();
+    int     getDuration();
+    int     getNumberOfQuestions();
+    int     getTotalScore();
+    boolean getPublished();
+    long    getSubmissions();
+    Double  getAverageScore();
+    Double  getPassRate();
+}
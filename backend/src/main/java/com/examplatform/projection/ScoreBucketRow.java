@@ -0,0 +1,7 @@
+package com.examplatform.projection;
+
+public interface ScoreBucketRow {
+    Long getExamId();
+    int  getBucket();
+    long getCount();
+}
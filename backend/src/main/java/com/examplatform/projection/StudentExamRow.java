@@ -0,0 +1,13 @@
+package com.examplatform.projection;
+
+/** A published exam as listed to an enrolled student. */
+public interface StudentExamRow {
+    Long   getId();
+    String getTitle();
+    Long   getCourseId();
+    String getCourseName();
+    int    getDuration();
+    int    getTotalScore();
+    int    getMaxAttempts();
+    int    getAttemptsUsed();
+}
@@ -0,0 +1,35 @@
+package com.examplatform.repository;
+
+import com.examplatform.model.AttemptLedger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AttemptLedgerRepository extends JpaRepository<AttemptLedger, AttemptLedger.Key> {
+
+    /** Consume one attempt if any are left; returns 0 when exhausted or the row is missing. */
+    @Modifying
+    @Query("""
+  update AttemptLedger l set l.attemptsUsed = l.attemptsUsed + 1
+  where l.studentId = :studentId and l.examId = :examId and l.attemptsUsed < :maxAttempts
+""")
+    int tryConsume(@Param("studentId") Long studentId, @Param("examId") Long examId,
+                   @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query("""
+  update AttemptLedger l set l.attemptsUsed = l.attemptsUsed - 1
+  where l.studentId = :studentId and l.examId = :examId and l.attemptsUsed > 0
+""")
+    int release(@Param("studentId") Long studentId, @Param("examId") Long examId);
+
+    /** Create the row, seeded with results recorded before the ledger existed. */
+    @Modifying
+    @Query(value = """
+  insert into exam_attempt_ledger (student_id, exam_id, attempts_used)
+  select :studentId, :examId, count(*) from exam_result
+  where student_id = :studentId and exam_id = :examId
+""", nativeQuery = true)
+    int insertSeeded(@Param("studentId") Long studentId, @Param("examId") Long examId);
+}
@@ -2,12 +2,95 @@ package com.examplatform.repository;
 
 import com.examplatform.model.Course;
 import com.examplatform.model.User;
+import com.examplatform.projection.CourseCardRow;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface CourseRepository extends JpaRepository<Course, Long> {
     List<Course> findByInstructorsContaining(User instructor);
-    List<Course> findByNameContainingIgnoreCase(String keyword);
     List<Course> findByEnrolledStudentsId(Long studentId);
     boolean existsByIdAndEnrolledStudentsId(Long courseId, Long studentId);
+
+    @Query("select c.id from Course c where c.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /** Courses the student is not enrolled in with id above afterId, in id order. */
+    @Query(value = """
+  select c.id as id, c.name as name, c.description as description, c.capacity as capacity,
+         c.capacity - c.enrolled_count as seatsRemaining
+  from course c
+  where c.id > :afterId
+    and not exists (select 1 from course_student cs where cs.course_id = c.id and cs.student_id = :studentId)
+  order by c.id
+""", nativeQuery = true)
+    List<CourseCardRow> findCatalogAfter(@Param("studentId") Long studentId, @Param("afterId") Long afterId,
+                                         Pageable page);
+
+    /** As findCatalogAfter, restricted to a MySQL boolean-mode full-text match on name and description. */
+    @Query(value = """
+  select c.id as id, c.name as name, c.description as description, c.capacity as capacity,
+         c.capacity - c.enrolled_count as seatsRemaining
+  from course c
+  where c.id > :afterId
+    and match(c.name, c.description) against (:query in boolean mode)
+    and not exists (select 1 from course_student cs where cs.course_id = c.id and cs.student_id = :studentId)
+  order by c.id
+""", nativeQuery = true)
+    List<CourseCardRow> searchCatalogAfter(@Param("studentId") Long studentId, @Param("query") String query,
+                                           @Param("afterId") Long afterId, Pageable page);
+
+    /** As findCatalogAfter, restricted to the given courses. */
+    @Query(value = """
+  select c.id as id, c.name as name, c.description as description, c.capacity as capacity,
+         c.capacity - c.enrolled_count as seatsRemaining
+  from course c
+  where c.id in (:ids)
+    and not exists (select 1 from course_student cs where cs.course_id = c.id and cs.student_id = :studentId)
+  order by c.id
+""", nativeQuery = true)
+    List<CourseCardRow> findCatalogIn(@Param("studentId") Long studentId, @Param("ids") Collection<Long> ids);
+
+    /** One course card, e.g. to answer an enrollment. */
+    @Query(value = """
+  select c.id as id, c.name as name, c.description as description, c.capacity as capacity,
+         c.capacity - c.enrolled_count as seatsRemaining
+  from course c
+  where c.id = :courseId
+""", nativeQuery = true)
+    Optional<CourseCardRow> findCard(@Param("courseId") Long courseId);
+
+    /** Take one seat if any are left; returns 0 when the course is full or missing. */
+    @Modifying
+    @Query(value = """
+  update course set enrolled_count = enrolled_count + 1
+  where id = :courseId and enrolled_count < capacity
+""", nativeQuery = true)
+    int takeSeat(@Param("courseId") Long courseId);
+
+    /** Fails on the uk_course_student constraint if the student is already enrolled. */
+    @Modifying
+    @Query(value = "insert into course_student (course_id, student_id) values (:courseId, :studentId)",
+            nativeQuery = true)
+    int insertEnrollment(@Param("courseId") Long courseId, @Param("studentId") Long studentId);
+
+    @Modifying
+    @Query(value = "delete from course_student where course_id = :courseId and student_id = :studentId",
+            nativeQuery = true)
+    int deleteEnrollment(@Param("courseId") Long courseId, @Param("studentId") Long studentId);
+
+    @Modifying
+    @Query(value = "update course set enrolled_count = enrolled_count - 1 where id = :courseId and enrolled_count > 0",
+            nativeQuery = true)
+    int releaseSeat(@Param("courseId") Long courseId);
+
+    @Modifying
+    @Query("update Course c set c.capacity = :capacity where c.id = :courseId")
+    int updateCapacity(@Param("courseId") Long courseId, @Param("capacity") int capacity);
 }
@@ -0,0 +1,32 @@
+package com.examplatform.repository;
+
+import com.examplatform.model.ExamAttempt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface ExamAttemptRepository extends JpaRepository<ExamAttempt, Long> {
+    Optional<ExamAttempt> findByOpenKey(String openKey);
+
+    /** Close an open attempt; returns 0 if another request already closed it. */
+    @Transactional
+    @Modifying
+    @Query("""
+  update ExamAttempt a set a.status = 'SUBMITTED', a.openKey = null, a.submittedAt = :submittedAt
+  where a.id = :id and a.openKey is not null
+""")
+    int close(@Param("id") Long id, @Param("submittedAt") Instant submittedAt);
+
+    @Transactional
+    @Modifying
+    @Query("""
+  update ExamAttempt a set a.status = 'IN_PROGRESS', a.openKey = :openKey, a.submittedAt = null
+  where a.id = :id
+""")
+    int reopen(@Param("id") Long id, @Param("openKey") String openKey);
+}
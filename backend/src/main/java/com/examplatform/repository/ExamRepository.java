@@ -2,8 +2,12 @@ package com.examplatform.repository;
 
 import com.examplatform.model.Course;
 import com.examplatform.model.Exam;
+import com.examplatform.projection.InstructorExamRow;
+import com.examplatform.projection.StudentExamRow;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -12,4 +16,49 @@ public interface ExamRepository extends JpaRepository<Exam, Long> {
     @Query("SELECT e FROM Exam e WHERE e.course.id = :courseId")
     List<Exam> findByCourseId(Long courseId);
     List<Exam> findByPublishedTrue();
+
+    /**
+     * Published exams of every course the student is enrolled in, with the attempts they
+     * have used; one pass over the student's course_student rows.
+     */
+    @Query(value = """
+  select e.id as id, e.title as title, c.id as courseId, c.name as courseName,
+         e.duration as duration, e.total_score as totalScore, e.max_attempts as maxAttempts,
+         coalesce(l.attempts_used, 0) as attemptsUsed
+  from course_student cs
+  join exam e on e.course_id = cs.course_id and e.published = true
+  join course c on c.id = cs.course_id
+  left join exam_attempt_ledger l on l.student_id = cs.student_id and l.exam_id = e.id
+  where cs.student_id = :studentId
+  order by c.name, e.title, e.id
+""", nativeQuery = true)
+    List<StudentExamRow> findPublishedForStudent(@Param("studentId") Long studentId);
+
+    /**
+     * Exams of the instructor's courses with id below beforeId, newest first, with
+     * submission count, average score and pass rate. Unless anyStatus is set, only exams
+     * whose published flag equals published are returned.
+     */
+    @Query(value = """
+  select e.id as id, e.title as title, c.id as courseId, c.name as courseName,
+         e.duration as duration, e.number_of_questions as numberOfQuestions,
+         e.total_score as totalScore, e.published as published,
+         count(r.id) as submissions,
+         avg(r.score) as averageScore,
+         avg(case when r.id is null then null when r.status = 'PASS' then 1.0 else 0.0 end) as passRate
+  from course_instructor ci
+  join exam e on e.course_id = ci.course_id
+  join course c on c.id = ci.course_id
+  left join exam_result r on r.exam_id = e.id
+  where ci.instructor_id = :instructorId
+    and (:anyStatus = true or e.published = :published)
+    and e.id < :beforeId
+  group by e.id, e.title, c.id, c.name, e.duration, e.number_of_questions, e.total_score, e.published
+  order by e.id desc
+""", nativeQuery = true)
+    List<InstructorExamRow> findForInstructorBefore(@Param("instructorId") Long instructorId,
+                                                    @Param("anyStatus") boolean anyStatus,
+                                                    @Param("published") boolean published,
+                                                    @Param("beforeId") Long beforeId,
+                                                    Pageable page);
 }
@@ -1,12 +1,20 @@
 package com.examplatform.repository;
 
-import com.examplatform.projection.StudentCourseGpaRow;
 import com.examplatform.model.ExamResult;
+import com.examplatform.projection.ExamResultRow;
+import com.examplatform.projection.ExamScoreStatsRow;
+import com.examplatform.projection.ScoreBucketRow;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface ExamResultRepository extends JpaRepository<ExamResult, Long> {
     List<ExamResult> findByStudentId(Long studentId);
@@ -14,40 +22,49 @@ public interface ExamResultRepository extends JpaRepository<ExamResult, Long> {
     boolean existsByStudentIdAndExamId(Long studentId, Long examId);
 
     long countByStudentIdAndExamId(Long studentId, Long examId);
+
+    /** Results of an exam with id greater than afterId, in id order. */
+    @Query("""
+  select er.id as id, u.id as studentId, concat(u.firstName, ' ', u.lastName) as studentName,
+         u.email as studentEmail, er.score as score, er.status as status
+  from ExamResult er join er.student u
+  where er.exam.id = :examId and er.id > :afterId
+  order by er.id
+""")
+    List<ExamResultRow> findRowsAfter(@Param("examId") Long examId, @Param("afterId") Long afterId, Pageable page);
+
+    /** Every result of an exam in id order, fetched in slices; needs an open transaction. */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
     @Query("""
-  select
-    u.id                                   as studentId,
-    concat(u.firstName, ' ', u.lastName)   as studentName,
-    c.id                                   as courseId,
-    c.name                                 as courseName,
-    (sum(er.score) * 100.0) / sum(e.totalScore)  as avgPercent,
-    (sum(er.score) * 4.0)   / sum(e.totalScore)  as gpa
-  from ExamResult er
-    join er.student u
-    join er.exam e
-    join e.course c
-  where e.totalScore > 0
-  group by u.id, u.firstName, u.lastName, c.id, c.name
-  order by u.lastName, u.firstName, c.name
+  select er.id as id, u.id as studentId, concat(u.firstName, ' ', u.lastName) as studentName,
+         u.email as studentEmail, er.score as score, er.status as status
+  from ExamResult er join er.student u
+  where er.exam.id = :examId
+  order by er.id
 """)
-    List<StudentCourseGpaRow> findStudentCourseGpaWeighted();
+    Stream<ExamResultRow> streamRows(@Param("examId") Long examId);
 
+    /** Count, sum, sum of squares and passes per exam; one row per exam with results. */
     @Query("""
-  select
-    u.id                                 as studentId,
-    concat(u.firstName, ' ', u.lastName) as studentName,
-    c.id                                 as courseId,
-    c.name                               as courseName,
-    (sum(er.score) * 100.0) / sum(e.totalScore) as avgPercent,
-    (sum(er.score) * 4.0)   / sum(e.totalScore) as gpa
-  from ExamResult er
-    join er.student u
-    join er.exam e
-    join e.course c
-  where u.id = :studentId and e.totalScore > 0
-  group by u.id, u.firstName, u.lastName, c.id, c.name
-  order by c.name
+  select e.id as examId, e.title as title, e.totalScore as totalScore,
+         count(er) as attempts,
+         sum(er.score) as scoreSum,
+         sum(cast(er.score as Long) * er.score) as scoreSquareSum,
+         sum(case when er.status = 'PASS' then 1 else 0 end) as passes
+  from ExamResult er join er.exam e
+  group by e.id, e.title, e.totalScore
+  order by e.id
 """)
+    List<ExamScoreStatsRow> findScoreStatsByExam();
 
-    List<StudentCourseGpaRow> findStudentCourseGpaWeightedByStudent(@Param("studentId") Long studentId);
+    /** Results per exam in ten buckets of 10% of the exam's total score. */
+    @Query(value = """
+  select er.exam_id as examId,
+         greatest(0, least(9, floor(er.score * 10 / e.total_score))) as bucket,
+         count(*) as count
+  from exam_result er join exam e on e.id = er.exam_id
+  where e.total_score > 0
+  group by er.exam_id, greatest(0, least(9, floor(er.score * 10 / e.total_score)))
+""", nativeQuery = true)
+    List<ScoreBucketRow> findScoreHistogramByExam();
 }
@@ -0,0 +1,7 @@
+package com.examplatform.repository;
+
+import com.examplatform.model.ExamScoreSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ExamScoreSketchRepository extends JpaRepository<ExamScoreSketch, Long> {
+}
@@ -2,10 +2,18 @@ package com.examplatform.repository;
 
 import com.examplatform.model.Exam;
 import com.examplatform.model.Question;
+import com.examplatform.projection.AnswerKeyRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
 
 public interface QuestionRepository extends JpaRepository<Question, Long> {
     List<Question> findByExam(Exam exam);
     List<Question> findByExamId(Long examId);
+
+    // Only what grading needs; skips the options JSON entirely.
+    @Query("select q.id as id, q.correctAnswer as correctAnswer, q.marks as marks from Question q where q.exam.id = :examId")
+    List<AnswerKeyRow> findAnswerKeyByExamId(@Param("examId") Long examId);
 }
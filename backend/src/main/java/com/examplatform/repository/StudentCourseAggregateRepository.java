@@ -0,0 +1,88 @@
+package com.examplatform.repository;
+
+import com.examplatform.model.StudentCourseAggregate;
+import com.examplatform.projection.StudentCourseGpaRow;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface StudentCourseAggregateRepository
+        extends JpaRepository<StudentCourseAggregate, StudentCourseAggregate.Key> {
+
+    @Query("""
+  select
+    u.id                                   as studentId,
+    concat(u.firstName, ' ', u.lastName)   as studentName,
+    c.id                                   as courseId,
+    c.name                                 as courseName,
+    (a.scoreSum * 100.0) / a.totalScoreSum as avgPercent,
+    (a.scoreSum * 4.0)   / a.totalScoreSum as gpa
+  from StudentCourseAggregate a
+    join User u on u.id = a.studentId
+    join Course c on c.id = a.courseId
+  where a.totalScoreSum > 0
+  order by u.lastName, u.firstName, c.name
+""")
+    List<StudentCourseGpaRow> findGpa();
+
+    @Query("""
+  select
+    u.id                                   as studentId,
+    concat(u.firstName, ' ', u.lastName)   as studentName,
+    c.id                                   as courseId,
+    c.name                                 as courseName,
+    (a.scoreSum * 100.0) / a.totalScoreSum as avgPercent,
+    (a.scoreSum * 4.0)   / a.totalScoreSum as gpa
+  from StudentCourseAggregate a
+    join User u on u.id = a.studentId
+    join Course c on c.id = a.courseId
+  where a.studentId = :studentId and a.totalScoreSum > 0
+  order by c.name
+""")
+    List<StudentCourseGpaRow> findGpaByStudent(@Param("studentId") Long studentId);
+
+    /** Rows after (studentId, courseId) in key order; page size comes from the Pageable. */
+    @Query("""
+  select
+    u.id                                   as studentId,
+    concat(u.firstName, ' ', u.lastName)   as studentName,
+    c.id                                   as courseId,
+    c.name                                 as courseName,
+    (a.scoreSum * 100.0) / a.totalScoreSum as avgPercent,
+    (a.scoreSum * 4.0)   / a.totalScoreSum as gpa
+  from StudentCourseAggregate a
+    join User u on u.id = a.studentId
+    join Course c on c.id = a.courseId
+  where a.totalScoreSum > 0
+    and (a.studentId > :studentId or (a.studentId = :studentId and a.courseId > :courseId))
+  order by a.studentId, a.courseId
+""")
+    List<StudentCourseGpaRow> findGpaAfter(@Param("studentId") Long studentId, @Param("courseId") Long courseId,
+                                           Pageable page);
+
+    /** Every row in key order, fetched from the driver in slices; needs an open transaction. */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+  select
+    u.id                                   as studentId,
+    concat(u.firstName, ' ', u.lastName)   as studentName,
+    c.id                                   as courseId,
+    c.name                                 as courseName,
+    (a.scoreSum * 100.0) / a.totalScoreSum as avgPercent,
+    (a.scoreSum * 4.0)   / a.totalScoreSum as gpa
+  from StudentCourseAggregate a
+    join User u on u.id = a.studentId
+    join Course c on c.id = a.courseId
+  where a.totalScoreSum > 0
+  order by a.studentId, a.courseId
+""")
+    Stream<StudentCourseGpaRow> streamGpa();
+}
@@ -0,0 +1,21 @@
+package com.examplatform.repository;
+
+import com.examplatform.model.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+    Optional<WaitlistEntry> findByCourseIdAndStudentId(Long courseId, Long studentId);
+
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.courseId = :courseId and w.studentId = :studentId")
+    int deleteByCourseAndStudent(@Param("courseId") Long courseId, @Param("studentId") Long studentId);
+
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.courseId = :courseId")
+    int deleteByCourse(@Param("courseId") Long courseId);
+}
@@ -0,0 +1,184 @@
+package com.examplatform.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Token-bucket limits on login and registration, checked in the security chain before
+ * the request reaches a controller and its BCrypt hash.
+ *
+ * Every request spends a token from its client IP's bucket and, when the JSON body
+ * names one, from the email's bucket; the IP limit stops a script spraying accounts and
+ * the much tighter email limit stops guessing at one account from many addresses. The
+ * IP limit has to leave room for a lab behind a single NAT logging in together. The
+ * client IP is {@code getRemoteAddr()}, so behind a proxy set
+ * {@code server.forward-headers-strategy}.
+ */
+@Slf4j
+@Component
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> LIMITED = Set.of("/api/auth/login", "/api/auth/register");
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    private final TokenBucketLimiter byIp;
+    private final TokenBucketLimiter byEmail;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public AuthRateLimitFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                               @Value("${auth.rate-limit.ip.capacity:100}") int ipCapacity,
+                               @Value("${auth.rate-limit.ip.refill-per-minute:100}") int ipRefill,
+                               @Value("${auth.rate-limit.email.capacity:5}") int emailCapacity,
+                               @Value("${auth.rate-limit.email.refill-per-minute:5}") int emailRefill,
+                               @Value("${auth.rate-limit.max-keys:100000}") int maxKeys) {
+        this.byIp = new TokenBucketLimiter(ipCapacity, ipRefill, maxKeys);
+        this.byEmail = new TokenBucketLimiter(emailCapacity, emailRefill, maxKeys);
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("auth.ratelimit.buckets", byIp, TokenBucketLimiter::size)
+                .tag("limit", "ip")
+                .register(meterRegistry);
+        Gauge.builder("auth.ratelimit.buckets", byEmail, TokenBucketLimiter::size)
+                .tag("limit", "email")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest req) {
+        return !"POST".equalsIgnoreCase(req.getMethod()) || !LIMITED.contains(req.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws ServletException, IOException {
+        String endpoint = req.getServletPath().substring("/api/auth/".length());
+
+        long wait = byIp.tryAcquire(req.getRemoteAddr());
+        if (wait > 0) {
+            reject(res, endpoint, "ip", wait);
+            return;
+        }
+
+        byte[] body = req.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            res.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            return;
+        }
+        String email = email(body);
+        if (email != null) {
+            wait = byEmail.tryAcquire(email);
+            if (wait > 0) {
+                reject(res, endpoint, "email", wait);
+                return;
+            }
+        }
+        chain.doFilter(new CachedBodyRequest(req, body), res);
+    }
+
+    private String email(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email != null && email.isTextual() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException | RuntimeException e) {
+            return null; // let the controller report the malformed body
+        }
+    }
+
+    private void reject(HttpServletResponse res, String endpoint, String limit, long retryAfterSeconds) throws IOException {
+        meterRegistry.counter("auth.ratelimit.rejected", "endpoint", endpoint, "limit", limit).increment();
+        log.debug("Rate limited {} by {}", endpoint, limit);
+        res.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        res.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        res.setContentType("text/plain;charset=UTF-8");
+        res.getWriter().write("Too many attempts, please retry later");
+    }
+
+    /** Replays a body that has already been read. */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is all available at once
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
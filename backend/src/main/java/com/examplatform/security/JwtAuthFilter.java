@@ -13,7 +13,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
@@ -42,15 +41,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             String auth = req.getHeader("Authorization");
             if (auth != null && auth.startsWith("Bearer ")) {
                 String token = auth.substring(7);
-                if (jwt.isValid(token)) {
-                    String subject = jwt.subject(token);     // email or id
-                    List<String> roles = jwt.roles(token);   // ["STUDENT"], ["ADMIN"], ...
-
-                    var authorities = roles.stream()
+                JwtPrincipal principal = jwt.verify(token);   // one parse + signature check, cached until exp
+                if (principal != null) {
+                    var authorities = principal.roles().stream()   // ["STUDENT"], ["ADMIN"], ...
                             .map(r -> new SimpleGrantedAuthority("ROLE_" + r)) // Spring expects ROLE_*
                             .toList();
 
-                    var authentication = new UsernamePasswordAuthenticationToken(subject, null, authorities);
+                    var authentication = new UsernamePasswordAuthenticationToken(principal, null, authorities);
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                     SecurityContextHolder.getContext().getAuthentication();
 
@@ -0,0 +1,26 @@
+package com.examplatform.security;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims of a verified access token. Set as the Authentication principal, so
+ * {@code getName()} keeps returning the subject (the user's email). {@code userId}
+ * is null for tokens issued before the "uid" claim existed.
+ */
+public record JwtPrincipal(String subject, Long userId, List<String> roles, Instant expiresAt) implements Principal {
+
+    public JwtPrincipal {
+        roles = List.copyOf(roles);
+    }
+
+    @Override
+    public String getName() {
+        return subject;
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
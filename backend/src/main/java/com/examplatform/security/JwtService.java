@@ -3,6 +3,7 @@ package com.examplatform.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -17,8 +18,16 @@ import java.util.List;
 public class JwtService {
 
     private final Key key;
+    private final JwtParser parser;
+    private final VerifiedTokenCache verifiedTokens;
 
-    public JwtService(@Value("${jwt.secret}") String secret) {
+    public JwtService(String secret) {
+        this(secret, 0);
+    }
+
+    @Autowired
+    public JwtService(@Value("${jwt.secret}") String secret,
+                      @Value("${jwt.verified-cache-size:100000}") int verifiedCacheSize) {
         // HS256 requires 32+ chars
         if (secret == null || secret.isBlank()) {
             throw new IllegalStateException("Missing jwt.secret. Supply it via application properties or JWT_SECRET env var.");
@@ -27,12 +36,19 @@ public class JwtService {
             throw new IllegalStateException("jwt.secret must be at least 32 bytes for HS256.");
         }
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build(); // immutable, safe to share
+        this.verifiedTokens = new VerifiedTokenCache(verifiedCacheSize);
     }
 
     public String issue(String subject, List<String> roles, Duration ttl) {
+        return issue(subject, null, roles, ttl);
+    }
+
+    public String issue(String subject, Long userId, List<String> roles, Duration ttl) {
         Instant now = Instant.now();
         return Jwts.builder()
                 .setSubject(subject)              // email or userId
+                .claim("uid", userId)             // lets requests resolve the user without a lookup by email
                 .claim("roles", roles)            // <-- put roles inside token
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(now.plus(ttl)))
@@ -40,19 +56,50 @@ public class JwtService {
                 .compact();
     }
 
-    public boolean isValid(String token) {
-        try { parse(token); return true; } catch (JwtException | IllegalArgumentException e) { return false; }
+    /**
+     * Verify the token once and return its claims, or null if it is invalid or expired.
+     * A token seen before is served from the cache without checking the signature again,
+     * until its {@code exp}.
+     */
+    public JwtPrincipal verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        Instant now = Instant.now();
+        JwtPrincipal cached = verifiedTokens.get(token, now);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            JwtPrincipal principal = toPrincipal(parse(token).getBody());
+            verifiedTokens.put(token, principal, now);
+            return principal;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
+
+    public boolean isValid(String token) { return verify(token) != null; }
+
     public String subject(String token) { return parse(token).getBody().getSubject(); }
 
+    public List<String> roles(String token) { return roles(parse(token).getBody()); }
+
+    private static JwtPrincipal toPrincipal(Claims claims) {
+        Date exp = claims.getExpiration();
+        Object uid = claims.get("uid");
+        return new JwtPrincipal(claims.getSubject(), uid instanceof Number n ? n.longValue() : null,
+                roles(claims), exp != null ? exp.toInstant() : null);
+    }
+
     @SuppressWarnings("unchecked")
-    public List<String> roles(String token) {
-        Object v = parse(token).getBody().get("roles");
+    private static List<String> roles(Claims claims) {
+        Object v = claims.get("roles");
         return v instanceof List<?> l ? (List<String>) l : List.of();
     }
 
     private Jws<Claims> parse(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        return parser.parseClaimsJws(token);
     }
 }
 
@@ -60,6 +107,8 @@ public class JwtService {
 //
 //        issue(subject, roles, ttl) → makes a token (adds user + roles + expiry, then signs).
 //
+//        verify(token) → verifies the signature and expiry once and returns the claims (cached until exp).
+//
 //        isValid(token) → verifies the signature and expiry. If invalid/expired → reject.
 //
 //        subject(token) → reads the user id/email from the token.
@@ -0,0 +1,107 @@
+package com.examplatform.security;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token buckets keyed by an arbitrary string (an IP, an email).
+ *
+ * Buckets are refilled lazily from the time elapsed since they were last touched, so
+ * there is no timer thread. Keys are spread over a fixed number of stripes, each an
+ * access-ordered map behind its own lock; a stripe that reaches its share of
+ * {@code maxKeys} drops its least recently used bucket, which at worst hands a
+ * forgotten client a fresh, full bucket.
+ */
+public class TokenBucketLimiter {
+
+    private static final int STRIPES = 64;
+
+    private static final class Bucket {
+        double tokens;
+        long refilledAt;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+    }
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final List<Map<String, Bucket>> stripes = new ArrayList<>(STRIPES);
+
+    /**
+     * @param capacity        burst size
+     * @param refillPerMinute tokens added back per minute
+     * @param maxKeys         upper bound on buckets kept in memory
+     */
+    public TokenBucketLimiter(int capacity, int refillPerMinute, int maxKeys) {
+        if (capacity < 1 || refillPerMinute < 1) {
+            throw new IllegalArgumentException("capacity and refillPerMinute must be positive");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        int perStripe = Math.max(1, maxKeys / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+            stripes.add(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > perStripe;
+                }
+            });
+        }
+    }
+
+    /**
+     * Take one token for {@code key}.
+     *
+     * @return 0 if the request may go ahead, otherwise the number of seconds until a
+     *         token will be available
+     */
+    public long tryAcquire(String key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    long tryAcquire(String key, long now) {
+        int stripe = (key.hashCode() & 0x7fffffff) % STRIPES;
+        ReentrantLock lock = locks[stripe];
+        lock.lock();
+        try {
+            Bucket bucket = stripes.get(stripe).get(key);
+            if (bucket == null) {
+                stripes.get(stripe).put(key, new Bucket(capacity - 1, now));
+                return 0;
+            }
+            bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.refilledAt) * tokensPerNano);
+            bucket.refilledAt = now;
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            double nanosUntilToken = (1 - bucket.tokens) / tokensPerNano;
+            return Math.max(1, (long) Math.ceil(nanosUntilToken / TimeUnit.SECONDS.toNanos(1)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Buckets currently held, across all stripes. */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i].lock();
+            try {
+                size += stripes.get(i).size();
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,75 @@
+package com.examplatform.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tokens whose signature has already been checked, keyed by the SHA-256 of the token
+ * so the raw bearer strings are not kept in memory. Entries are only served until the
+ * token's own {@code exp}; when the cache is full, expired entries are swept first and
+ * then an arbitrary slice is dropped.
+ */
+final class VerifiedTokenCache {
+
+    private record Digest(long a, long b, long c, long d) {}
+
+    private final Map<Digest, JwtPrincipal> verified = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    VerifiedTokenCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    JwtPrincipal get(String token, Instant now) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        Digest key = digest(token);
+        JwtPrincipal principal = verified.get(key);
+        if (principal != null && principal.isExpired(now)) {
+            verified.remove(key, principal);
+            return null;
+        }
+        return principal;
+    }
+
+    void put(String token, JwtPrincipal principal, Instant now) {
+        if (maxSize <= 0 || principal.expiresAt() == null) {
+            return; // never cache a token that does not expire
+        }
+        if (verified.size() >= maxSize) {
+            shrink(now);
+        }
+        verified.put(digest(token), principal);
+    }
+
+    int size() {
+        return verified.size();
+    }
+
+    private void shrink(Instant now) {
+        verified.values().removeIf(p -> p.isExpired(now));
+        int excess = verified.size() - (maxSize - maxSize / 8);
+        Iterator<Digest> it = verified.keySet().iterator();
+        while (excess-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static Digest digest(String token) {
+        try {
+            ByteBuffer hash = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8)));
+            return new Digest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.examplatform.service;
 
+import com.examplatform.dto.AnalyticsReport;
 import com.examplatform.model.User;
+import com.examplatform.projection.CourseCardRow;
 
 import java.util.List;
 
@@ -8,6 +10,8 @@ public interface AdminService {
     User addInstructor(User instructor);
     void removeInstructor(Long instructorId);
     User assignInstructorToCourse(Long instructorId, Long courseId);
+    CourseCardRow updateCourseCapacity(Long courseId, int capacity);
     List<User> getAllUsers();
     String getAnalytics();
+    AnalyticsReport getExamAnalytics();
 }
@@ -1,19 +1,28 @@
 package com.examplatform.service;
 
+import com.examplatform.dto.AnalyticsReport;
+import com.examplatform.exception.ResourceNotFoundException;
 import com.examplatform.model.Course;
-import com.examplatform.model.ExamResult;
 import com.examplatform.model.Role;
 import com.examplatform.model.User;
 import com.examplatform.repository.CourseRepository;
 import com.examplatform.repository.ExamResultRepository;
 import com.examplatform.repository.RoleRepository;
 import com.examplatform.repository.UserRepository;
+import com.examplatform.projection.CourseCardRow;
+import com.examplatform.projection.ExamScoreStatsRow;
+import com.examplatform.projection.ScoreBucketRow;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class AdminServiceImpl implements AdminService {
@@ -23,16 +32,22 @@ public class AdminServiceImpl implements AdminService {
     private final CourseRepository courseRepository;
     private final PasswordEncoder passwordEncoder;
     private final ExamResultRepository examResultRepository; // new
+    private final CurrentUserService currentUserService;
+    private final CourseWaitlistService courseWaitlist;
 
     @Autowired
     public AdminServiceImpl(UserRepository userRepository, RoleRepository roleRepository,
                             CourseRepository courseRepository, PasswordEncoder passwordEncoder,
-                            ExamResultRepository examResultRepository) { // new param
+                            ExamResultRepository examResultRepository, // new param
+                            CurrentUserService currentUserService,
+                            CourseWaitlistService courseWaitlist) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.courseRepository = courseRepository;
         this.passwordEncoder = passwordEncoder;
         this.examResultRepository = examResultRepository; // assign new param
+        this.currentUserService = currentUserService;
+        this.courseWaitlist = courseWaitlist;
     }
 
     @Override
@@ -56,6 +71,7 @@ public class AdminServiceImpl implements AdminService {
     @Override
     public void removeInstructor(Long instructorId) {
         userRepository.deleteById(instructorId);
+        currentUserService.evict(instructorId);
     }
 
     @Override
@@ -76,22 +92,67 @@ public class AdminServiceImpl implements AdminService {
     }
 
 
+    // Lowering capacity below the enrolled count keeps everyone enrolled and only closes new seats
+    @Override
+    @Transactional
+    public CourseCardRow updateCourseCapacity(Long courseId, int capacity) {
+        if (capacity < 0) {
+            throw new RuntimeException("Capacity cannot be negative");
+        }
+        if (courseRepository.updateCapacity(courseId, capacity) == 0) {
+            throw new ResourceNotFoundException("Course not found");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                courseWaitlist.requestPromotion(courseId);
+            }
+        });
+        return courseRepository.findCard(courseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found"));
+    }
+
     @Override
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public String getAnalytics() {
-        // Compute overall average score from all exam results
-        List<ExamResult> allResults = examResultRepository.findAll();
-        if(allResults.isEmpty()){
+        // Overall average score across all exam results, from the per-exam aggregates
+        AnalyticsReport report = getExamAnalytics();
+        if (report.results() == 0) {
             return "No exam results available for analytics";
         }
-        double avgScore = allResults.stream()
-                .mapToInt(ExamResult::getScore)
-                .average()
-                .orElse(0.0);
-        return String.format("Total Exams: %d, Overall Average Score: %.2f", allResults.size(), avgScore);
+        return String.format("Total Exams: %d, Overall Average Score: %.2f", report.results(), report.meanScore());
+    }
+
+    // Two grouped queries; the work done here is proportional to the number of exams.
+    @Override
+    @Transactional(readOnly = true)
+    public AnalyticsReport getExamAnalytics() {
+        Map<Long, long[]> histograms = new HashMap<>();
+        for (ScoreBucketRow row : examResultRepository.findScoreHistogramByExam()) {
+            histograms.computeIfAbsent(row.getExamId(), id -> new long[10])[row.getBucket()] = row.getCount();
+        }
+        List<AnalyticsReport.ExamStats> perExam = new ArrayList<>();
+        long results = 0, scoreSum = 0, passes = 0;
+        for (ExamScoreStatsRow row : examResultRepository.findScoreStatsByExam()) {
+            long n = row.getAttempts();
+            double mean = (double) row.getScoreSum() / n;
+            // Population standard deviation from the sum of squares; clamp rounding noise below zero.
+            double variance = Math.max(0, (double) row.getScoreSquareSum() / n - mean * mean);
+            perExam.add(new AnalyticsReport.ExamStats(row.getExamId(), row.getTitle(), row.getTotalScore(), n,
+                    mean, Math.sqrt(variance), (double) row.getPasses() / n,
+                    histograms.getOrDefault(row.getExamId(), new long[10])));
+            results += n;
+            scoreSum += row.getScoreSum();
+            passes += row.getPasses();
+        }
+        return new AnalyticsReport(results, perExam.size(),
+                results == 0 ? 0 : (double) scoreSum / results,
+                results == 0 ? 0 : (double) passes / results,
+                perExam);
     }
 }
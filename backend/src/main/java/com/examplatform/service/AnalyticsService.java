@@ -1,17 +1,64 @@
 package com.examplatform.service;
 
+import com.examplatform.dto.KeysetPage;
 import com.examplatform.projection.StudentCourseGpaRow;
-import com.examplatform.repository.ExamResultRepository;
+import com.examplatform.repository.StudentCourseAggregateRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class AnalyticsService {
-    private final ExamResultRepository repo;
-    public AnalyticsService(ExamResultRepository repo) { this.repo = repo; }
+    private final StudentCourseAggregateRepository repo;
+    private final StudentCourseAggregateService aggregates;
+    public AnalyticsService(StudentCourseAggregateRepository repo, StudentCourseAggregateService aggregates) {
+        this.repo = repo;
+        this.aggregates = aggregates;
+    }
 
-    public List<StudentCourseGpaRow> gpaAll() { return repo.findStudentCourseGpaWeighted(); }
-    public List<StudentCourseGpaRow> gpaByStudent(Long studentId) { return repo.findStudentCourseGpaWeightedByStudent(studentId); }
+    @Transactional(readOnly = true)
+    public List<StudentCourseGpaRow> gpaAll() { return repo.findGpa(); }
+    @Transactional(readOnly = true)
+    public List<StudentCourseGpaRow> gpaByStudent(Long studentId) { return repo.findGpaByStudent(studentId); }
+
+    /**
+     * GPA rows in (studentId, courseId) order, starting after the cursor
+     * {@code "studentId:courseId"} (null for the first page).
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<StudentCourseGpaRow> gpaPage(String after, int limit) {
+        long studentId = 0, courseId = 0;
+        if (after != null && !after.isBlank()) {
+            String[] parts = after.split(":");
+            try {
+                studentId = Long.parseLong(parts[0]);
+                courseId = Long.parseLong(parts[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + after);
+            }
+        }
+        int size = KeysetPage.size(limit);
+        List<StudentCourseGpaRow> rows = repo.findGpaAfter(studentId, courseId, PageRequest.ofSize(size + 1));
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        StudentCourseGpaRow last = rows.get(size - 1);
+        return new KeysetPage<>(rows.subList(0, size), last.getStudentId() + ":" + last.getCourseId());
+    }
+
+    /** Hand every GPA row to {@code sink} without holding the result set in memory. */
+    @Transactional(readOnly = true)
+    public void exportGpa(Consumer<StudentCourseGpaRow> sink) {
+        try (Stream<StudentCourseGpaRow> rows = repo.streamGpa()) {
+            rows.forEach(sink);
+        }
+    }
+
+    /** Recompute the GPA totals from exam_result; returns the number of (student, course) rows. */
+    public int rebuildGpa() { return aggregates.rebuild(); }
 
 }
@@ -0,0 +1,118 @@
+package com.examplatform.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, precompiled answer key for one exam.
+ *
+ * Question ids are kept sorted in a {@code long[]} with the trimmed correct answer and
+ * marks in parallel arrays, so grading is a binary search plus a case-insensitive
+ * region compare per answer. Answers are matched to questions by id, never by position.
+ */
+public final class AnswerKey {
+
+    private final long examId;
+    private final long courseId;
+    private final int totalScore;
+    private final int passingScore;
+    private final int maxAttempts;
+    private final boolean published;
+    private final int questionsPerAttempt;
+    private final long[] questionIds;
+    private final String[] correctAnswers;
+    private final int[] marks;
+
+    public AnswerKey(long examId, long courseId, int totalScore, int passingScore, int maxAttempts,
+                     boolean published, int questionsPerAttempt,
+                     long[] questionIds, String[] correctAnswers, int[] marks) {
+        if (questionIds.length != correctAnswers.length || questionIds.length != marks.length) {
+            throw new IllegalArgumentException("Answer key arrays must have the same length");
+        }
+        this.examId = examId;
+        this.courseId = courseId;
+        this.totalScore = totalScore;
+        this.passingScore = passingScore;
+        this.maxAttempts = maxAttempts;
+        this.published = published;
+        this.questionsPerAttempt = questionsPerAttempt > 0 && questionsPerAttempt < questionIds.length
+                ? questionsPerAttempt
+                : questionIds.length;
+
+        Integer[] order = new Integer[questionIds.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare(questionIds[a], questionIds[b]));
+
+        this.questionIds = new long[order.length];
+        this.correctAnswers = new String[order.length];
+        this.marks = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            int src = order[i];
+            this.questionIds[i] = questionIds[src];
+            String answer = correctAnswers[src] == null ? "" : correctAnswers[src].trim();
+            this.correctAnswers[i] = answer.isEmpty() ? null : answer;
+            this.marks[i] = marks[src];
+        }
+    }
+
+    /**
+     * Points earned for the given answers. {@code answers.get(i)} answers question
+     * {@code questionIds.get(i)}; a question answered twice only counts once.
+     *
+     * @throws IllegalArgumentException if a question id is not part of this exam
+     */
+    public int grade(List<Long> submittedIds, List<String> answers) {
+        if (submittedIds.size() != answers.size()) {
+            throw new IllegalArgumentException("Number of answers does not match questions");
+        }
+        long[] seen = new long[(questionIds.length + 63) >>> 6];
+        int points = 0;
+        for (int i = 0; i < submittedIds.size(); i++) {
+            Long id = submittedIds.get(i);
+            int idx = id == null ? -1 : Arrays.binarySearch(questionIds, id);
+            if (idx < 0) {
+                throw new IllegalArgumentException("Question " + id + " does not belong to exam " + examId);
+            }
+            long bit = 1L << idx;
+            if ((seen[idx >>> 6] & bit) != 0) {
+                continue;
+            }
+            seen[idx >>> 6] |= bit;
+            if (matches(correctAnswers[idx], answers.get(i))) {
+                points += marks[idx];
+            }
+        }
+        return points;
+    }
+
+    /** The questions issued for an attempt started with {@code seed}. */
+    public long[] drawQuestions(long seed) {
+        return QuestionSampler.sample(questionIds, questionsPerAttempt, seed);
+    }
+
+    public boolean contains(long questionId) {
+        return Arrays.binarySearch(questionIds, questionId) >= 0;
+    }
+
+    /** Trim-and-ignore-case compare of {@code given} against an already trimmed key, without allocating. */
+    static boolean matches(String expected, String given) {
+        if (expected == null || given == null) {
+            return false;
+        }
+        int start = 0;
+        int end = given.length();
+        while (start < end && given.charAt(start) <= ' ') start++;
+        while (end > start && given.charAt(end - 1) <= ' ') end--;
+        int len = end - start;
+        return len == expected.length() && given.regionMatches(true, start, expected, 0, len);
+    }
+
+    public long examId() { return examId; }
+    public long courseId() { return courseId; }
+    public int totalScore() { return totalScore; }
+    public int passingScore() { return passingScore; }
+    public int maxAttempts() { return maxAttempts; }
+    public boolean published() { return published; }
+    public int questionsPerAttempt() { return questionsPerAttempt; }
+    public int questionCount() { return questionIds.length; }
+}
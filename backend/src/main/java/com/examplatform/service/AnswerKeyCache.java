@@ -0,0 +1,97 @@
+package com.examplatform.service;
+
+import com.examplatform.exception.ResourceNotFoundException;
+import com.examplatform.model.Exam;
+import com.examplatform.projection.AnswerKeyRow;
+import com.examplatform.repository.ExamRepository;
+import com.examplatform.repository.QuestionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled {@link AnswerKey}s for published exams. Unpublished exams are compiled on
+ * every call and never cached, since instructors are still editing them. Like
+ * {@link ExamPayloadCache}, concurrent misses share one load.
+ */
+@Slf4j
+@Service
+public class AnswerKeyCache {
+
+    private final ExamRepository examRepository;
+    private final QuestionRepository questionRepository;
+    private final Map<Long, CompletableFuture<AnswerKey>> keys = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AnswerKeyCache(ExamRepository examRepository, QuestionRepository questionRepository) {
+        this.examRepository = examRepository;
+        this.questionRepository = questionRepository;
+    }
+
+    public AnswerKey get(Long examId) {
+        CompletableFuture<AnswerKey> mine = new CompletableFuture<>();
+        CompletableFuture<AnswerKey> existing = keys.putIfAbsent(examId, mine);
+        if (existing == null) {
+            // The placeholder goes in before the database is read, so an eviction during the
+            // load removes it and the key compiled from pre-edit rows is never cached.
+            try {
+                Exam exam = examRepository.findById(examId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Exam not found"));
+                AnswerKey key = compile(exam, questionRepository.findAnswerKeyByExamId(examId));
+                if (exam.isPublished()) {
+                    log.debug("Compiled answer key for exam {} ({} questions)", examId, key.questionCount());
+                } else {
+                    keys.remove(examId, mine);
+                }
+                mine.complete(key);
+            } catch (RuntimeException e) {
+                keys.remove(examId, mine);
+                mine.completeExceptionally(e);
+            }
+            existing = mine;
+        }
+        try {
+            return existing.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+    /** Use {@link ExamCacheInvalidator}, which also covers the commit of the edit. */
+    void evict(Long examId) {
+        keys.remove(examId);
+        log.debug("Evicted answer key for exam {}", examId);
+    }
+
+    /** Same sizing rule the old Exam.getRandomizedExam used. */
+    private static int questionsPerAttempt(Exam exam, int[] marks) {
+        if (exam.getNumberOfQuestions() > 0) {
+            return exam.getNumberOfQuestions();
+        }
+        if (marks.length > 0 && marks[0] > 0) {
+            return exam.getTotalScore() / marks[0];
+        }
+        return 0;
+    }
+
+    static AnswerKey compile(Exam exam, List<AnswerKeyRow> rows) {
+        long[] ids = new long[rows.size()];
+        String[] answers = new String[rows.size()];
+        int[] marks = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            AnswerKeyRow row = rows.get(i);
+            ids[i] = row.getId();
+            answers[i] = row.getCorrectAnswer();
+            marks[i] = row.getMarks();
+        }
+        return new AnswerKey(exam.getId(), exam.getCourse().getId(), exam.getTotalScore(),
+                exam.getPassingScore(), exam.getMaxAttempts(), exam.isPublished(),
+                questionsPerAttempt(exam, marks), ids, answers, marks);
+    }
+}
@@ -0,0 +1,108 @@
+package com.examplatform.service;
+
+import com.examplatform.model.AttemptLedger;
+import com.examplatform.repository.AttemptLedgerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Enforces Exam.maxAttempts through the exam_attempt_ledger table.
+ *
+ * An attempt is taken with one conditional UPDATE, which the database serializes per
+ * row, so double-clicks and client retries cannot both get through. The in-memory
+ * cache holds a lower bound of attempts used per (student, exam); it only ever
+ * short-circuits students that are already known to be out of attempts.
+ */
+@Slf4j
+@Service
+public class AttemptLedgerService {
+
+    private final AttemptLedgerRepository attemptLedgerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StripedCounterCache usedAttempts;
+
+    @Autowired
+    public AttemptLedgerService(AttemptLedgerRepository attemptLedgerRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${exam.attempts.cache-stripes:64}") int stripes,
+                                @Value("${exam.attempts.cache-size:100000}") int cacheSize) {
+        this.attemptLedgerRepository = attemptLedgerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.usedAttempts = new StripedCounterCache(stripes, cacheSize);
+    }
+
+    /**
+     * Take one attempt for the student, or throw if none are left.
+     */
+    public void acquire(Long studentId, Long examId, int maxAttempts) {
+        int known = usedAttempts.get(studentId, examId);
+        if (known >= maxAttempts) {
+            log.debug("Student {} is out of attempts for exam {} (cached)", studentId, examId);
+            throw new RuntimeException("Exam already submitted");
+        }
+        boolean consumed = tryConsume(studentId, examId, maxAttempts);
+        if (!consumed && known == StripedCounterCache.MISSING) {
+            // First attempt on this exam (or first since restart): the row may not exist yet.
+            ensureRow(studentId, examId);
+            consumed = tryConsume(studentId, examId, maxAttempts);
+        }
+        if (!consumed) {
+            usedAttempts.put(studentId, examId, maxAttempts);
+            log.debug("Student {} is out of attempts for exam {}", studentId, examId);
+            throw new RuntimeException("Exam already submitted");
+        }
+        usedAttempts.put(studentId, examId, Math.max(known, 0) + 1);
+    }
+
+    /**
+     * Whether the student may start another attempt. Also creates the ledger row, so the
+     * submission that follows costs a single UPDATE.
+     */
+    public boolean hasAttemptsLeft(Long studentId, Long examId, int maxAttempts) {
+        if (usedAttempts.get(studentId, examId) >= maxAttempts) {
+            return false;
+        }
+        ensureRow(studentId, examId);
+        int used = attemptLedgerRepository.findById(new AttemptLedger.Key(studentId, examId))
+                .map(AttemptLedger::getAttemptsUsed)
+                .orElse(0);
+        usedAttempts.put(studentId, examId, used);
+        return used < maxAttempts;
+    }
+
+    /** Give back an attempt whose submission was never recorded. */
+    public void release(Long studentId, Long examId) {
+        transactionTemplate.executeWithoutResult(status -> attemptLedgerRepository.release(studentId, examId));
+        int known = usedAttempts.get(studentId, examId);
+        if (known > 0) {
+            usedAttempts.put(studentId, examId, known - 1);
+        }
+        log.debug("Released attempt for student {} exam {}", studentId, examId);
+    }
+
+    /**
+     * Make sure the ledger row exists.
+     *
+     * @return true if this call created it
+     */
+    public boolean ensureRow(Long studentId, Long examId) {
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> attemptLedgerRepository.insertSeeded(studentId, examId));
+            return true;
+        } catch (DataIntegrityViolationException alreadyThere) {
+            return false;
+        }
+    }
+
+    private boolean tryConsume(Long studentId, Long examId, int maxAttempts) {
+        Integer updated = transactionTemplate.execute(
+                status -> attemptLedgerRepository.tryConsume(studentId, examId, maxAttempts));
+        return updated != null && updated > 0;
+    }
+}
@@ -3,7 +3,10 @@ package com.examplatform.service;
 import com.examplatform.dto.LoginRequest;
 import com.examplatform.dto.LoginResponse;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface AuthService {
     String registerUser(LoginRequest request);
-    LoginResponse login(LoginRequest request);
+    CompletableFuture<LoginResponse> login(LoginRequest request);
+    LoginResponse refresh(String refreshToken);
 }
@@ -8,11 +8,16 @@ import com.examplatform.repository.RoleRepository;
 import com.examplatform.repository.UserRepository;
 import com.examplatform.security.JwtService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 
 
 @Slf4j
@@ -24,14 +29,26 @@ public class AuthServiceImpl implements AuthService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final com.examplatform.security.JwtService jwtService;
+    private final PasswordHashingExecutor passwordHashing;
+    private final RefreshTokenService refreshTokens;
+    private final CurrentUserService currentUserService;
+    private final Executor taskExecutor;
 
+    private static final Duration ACCESS_TOKEN_TTL = Duration.ofMinutes(30);
 
     @Autowired
-    public AuthServiceImpl(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder,  com.examplatform.security.JwtService jwtService){
+    public AuthServiceImpl(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder,  com.examplatform.security.JwtService jwtService,
+                           PasswordHashingExecutor passwordHashing, RefreshTokenService refreshTokens,
+                           CurrentUserService currentUserService,
+                           @Qualifier("applicationTaskExecutor") Executor taskExecutor){
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
+        this.passwordHashing = passwordHashing;
+        this.refreshTokens = refreshTokens;
+        this.currentUserService = currentUserService;
+        this.taskExecutor = taskExecutor;
     }
 
     @Override
@@ -46,7 +63,7 @@ public class AuthServiceImpl implements AuthService {
         // Now allow instructors to register just like students.
         if ("INSTRUCTOR".equalsIgnoreCase(roleFromRequest)) {
             if(userRepository.existsByEmail(request.getEmail())){
-                throw new RuntimeException("Email already exists");
+                throw new IllegalStateException("Email already exists");
             }
             Role instructorRole = roleRepository.findByRoleName("INSTRUCTOR")
                     .orElseThrow(() -> new RuntimeException("Role INSTRUCTOR not found"));
@@ -60,7 +77,7 @@ public class AuthServiceImpl implements AuthService {
             return "Registration successful";
         } else if ("STUDENT".equalsIgnoreCase(roleFromRequest)) {
             if(userRepository.existsByEmail(request.getEmail())){
-                throw new RuntimeException("Email already exists");
+                throw new IllegalStateException("Email already exists");
             }
             Role studentRole = roleRepository.findByRoleName("STUDENT")
                     .orElseThrow(() -> new RuntimeException("Role STUDENT not found"));
@@ -77,28 +94,48 @@ public class AuthServiceImpl implements AuthService {
         }
     }
 
+    // Password check runs on the hashing pool; the request thread is released while
+    // it waits (Spring MVC completes the response when the future does). Issuing the
+    // refresh token needs a pooled connection, so it continues on the application task
+    // executor rather than holding a hashing thread.
     @Override
-    public LoginResponse login(LoginRequest request) {
+    public CompletableFuture<LoginResponse> login(LoginRequest request) {
         log.info("Starting process for id");
 
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        return passwordHashing.matches(request.getPassword(), user.getPassword())
+                .thenApplyAsync(matches -> {
+                    if (!matches) {
+                        log.error("Failed to process id");
+                        throw new RuntimeException("Invalid password");
+                    }
+                    return respond(user.getId(), user.getEmail(), user.getRole().getRoleName(),
+                            refreshTokens.issue(user.getId()), "Login successful");
+                }, taskExecutor);
+    }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())){
-            log.error("Failed to process id");
-            throw new RuntimeException("Invalid password");
-        }
-        var roles = java.util.List.of(user.getRole().getRoleName()); // e.g., ["STUDENT"]
-        String token = jwtService.issue(user.getEmail(), roles, java.time.Duration.ofMinutes(30));
-        System.out.println("my genrated token " + token);
+    @Override
+    public LoginResponse refresh(String refreshToken) {
+        RefreshTokenService.Issued rotated = refreshTokens.rotate(refreshToken);
+        UserSnapshot user = currentUserService.byId(rotated.userId());
+        log.debug("Refreshed session for user {}", user.id());
+        return respond(user.id(), user.email(), user.role(), rotated, "Token refreshed");
+    }
 
+    private LoginResponse respond(Long userId, String email, String role,
+                                  RefreshTokenService.Issued refresh, String message) {
+        var roles = java.util.List.of(role); // e.g., ["STUDENT"]
+        String token = jwtService.issue(email, userId, roles, ACCESS_TOKEN_TTL);
 
         LoginResponse response = new LoginResponse();
-        response.setEmail(user.getEmail());
-        response.setRole(user.getRole().getRoleName());
-        response.setMessage("Login successful");
+        response.setEmail(email);
+        response.setRole(role);
+        response.setMessage(message);
         response.setAccessToken(token);
+        response.setRefreshToken(refresh.token());
+        response.setExpiresIn(ACCESS_TOKEN_TTL.toSeconds());
 
         return response;
     }
@@ -0,0 +1,151 @@
+package com.examplatform.service;
+
+import com.examplatform.dto.KeysetPage;
+import com.examplatform.model.Course;
+import com.examplatform.projection.CourseCardRow;
+import com.examplatform.repository.CourseRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * The course catalog a student browses: courses they are not enrolled in, in id order
+ * with a keyset cursor, optionally filtered by a search over name and description.
+ *
+ * On MySQL the search is a boolean-mode MATCH against a FULLTEXT index, created here on
+ * startup if missing, with every word of the query required as a prefix. Elsewhere
+ * (the embedded H2 profile) a {@link CourseSearchIndex} held in memory does substring
+ * matching; course writes must report to {@link #indexed} and {@link #removed}, and
+ * like the other in-memory stores it assumes a single application node.
+ */
+@Slf4j
+@Service
+public class CourseCatalogService {
+
+    private static final String FULLTEXT_INDEX = "ft_course_search";
+
+    private final CourseRepository courseRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final CourseSearchIndex index = new CourseSearchIndex();
+    private volatile boolean fullText;
+
+    @Autowired
+    public CourseCatalogService(CourseRepository courseRepository, JdbcTemplate jdbcTemplate) {
+        this.courseRepository = courseRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void init() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        fullText = "MySQL".equalsIgnoreCase(product) && ensureFullTextIndex();
+        if (!fullText) {
+            jdbcTemplate.query("select id, name, description from course", rs -> {
+                index.put(rs.getLong(1), rs.getString(2), rs.getString(3));
+            });
+            log.info("Course search: in-memory n-gram index over {} courses", index.size());
+        }
+    }
+
+    private boolean ensureFullTextIndex() {
+        try {
+            Integer existing = jdbcTemplate.queryForObject("""
+                    select count(*) from information_schema.statistics
+                    where table_schema = database() and table_name = 'course' and index_name = ?
+                    """, Integer.class, FULLTEXT_INDEX);
+            if (existing == null || existing == 0) {
+                jdbcTemplate.execute("alter table course add fulltext index " + FULLTEXT_INDEX + " (name, description)");
+                log.info("Created full-text index {} on course", FULLTEXT_INDEX);
+            }
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Course search falls back to the in-memory index: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /** Keep the in-memory index in step with a created or edited course. */
+    public void indexed(Course course) {
+        if (!fullText) {
+            index.put(course.getId(), course.getName(), course.getDescription());
+        }
+    }
+
+    public void removed(Long courseId) {
+        if (!fullText) {
+            index.remove(courseId);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<CourseCardRow> page(Long studentId, String query, String after, int limit) {
+        long afterId;
+        try {
+            afterId = after == null || after.isBlank() ? 0 : Long.parseLong(after);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + after);
+        }
+        int size = KeysetPage.size(limit);
+        List<CourseCardRow> rows;
+        if (query == null || query.isBlank()) {
+            rows = courseRepository.findCatalogAfter(studentId, afterId, PageRequest.ofSize(size + 1));
+        } else if (fullText) {
+            String terms = booleanModeTerms(query);
+            rows = terms.isEmpty()
+                    ? List.of()
+                    : courseRepository.searchCatalogAfter(studentId, terms, afterId, PageRequest.ofSize(size + 1));
+        } else {
+            rows = searchIndexed(studentId, query, afterId, size + 1);
+        }
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        return new KeysetPage<>(rows.subList(0, size), String.valueOf(rows.get(size - 1).getId()));
+    }
+
+    /** Index matches above afterId, a chunk at a time until enough pass the enrollment check. */
+    private List<CourseCardRow> searchIndexed(Long studentId, String query, long afterId, int wanted) {
+        long[] ids = index.search(query);
+        int from = Arrays.binarySearch(ids, afterId + 1);
+        from = from >= 0 ? from : -from - 1;
+        List<CourseCardRow> rows = new ArrayList<>(wanted);
+        while (rows.size() < wanted && from < ids.length) {
+            int to = Math.min(ids.length, from + wanted);
+            List<Long> chunk = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                chunk.add(ids[i]);
+            }
+            for (CourseCardRow row : courseRepository.findCatalogIn(studentId, chunk)) {
+                if (rows.size() < wanted) {
+                    rows.add(row);
+                }
+            }
+            from = to;
+        }
+        return rows;
+    }
+
+    /** "intro data" → "+intro* +data*": every word required, matched as a prefix. */
+    static String booleanModeTerms(String query) {
+        StringJoiner terms = new StringJoiner(" ");
+        for (String word : query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                terms.add("+" + word + "*");
+            }
+        }
+        return terms.toString();
+    }
+}
@@ -0,0 +1,121 @@
+package com.examplatform.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Case-insensitive substring search over course names and descriptions, for databases
+ * without a usable full-text index.
+ *
+ * Each course's text is split into overlapping three-character grams with a posting
+ * set per gram. A query takes its candidates from the posting set of its rarest gram
+ * and confirms each with a substring check, so the cost follows the size of that set
+ * rather than the number of courses. Queries shorter than a gram fall back to checking
+ * every course.
+ */
+final class CourseSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, String> texts = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    void put(Long courseId, String name, String description) {
+        String text = normalize(name) + "\n" + normalize(description);
+        lock.writeLock().lock();
+        try {
+            removeLocked(courseId);
+            texts.put(courseId, text);
+            for (String gram : grams(text)) {
+                postings.computeIfAbsent(gram, g -> new HashSet<>()).add(courseId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long courseId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return texts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ids of courses whose name or description contains {@code query}, ascending. */
+    long[] search(String query) {
+        String needle = normalize(query);
+        lock.readLock().lock();
+        try {
+            Collection<Long> candidates = texts.keySet();
+            if (needle.length() >= GRAM) {
+                Set<Long> rarest = null;
+                for (String gram : grams(needle)) {
+                    Set<Long> ids = postings.get(gram);
+                    if (ids == null) {
+                        return new long[0];
+                    }
+                    if (rarest == null || ids.size() < rarest.size()) {
+                        rarest = ids;
+                    }
+                }
+                candidates = rarest;
+            }
+            long[] matches = new long[candidates.size()];
+            int n = 0;
+            for (Long id : candidates) {
+                if (texts.get(id).contains(needle)) {
+                    matches[n++] = id;
+                }
+            }
+            long[] result = Arrays.copyOf(matches, n);
+            Arrays.sort(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long courseId) {
+        String old = texts.remove(courseId);
+        if (old == null) {
+            return;
+        }
+        for (String gram : grams(old)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null && ids.remove(courseId) && ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.strip().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,83 @@
+package com.examplatform.service;
+
+import com.examplatform.repository.CourseRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Enforces Course.capacity through the course.enrolled_count column.
+ *
+ * A seat is taken with one conditional UPDATE, which the database serializes per course
+ * row, and the enrollment is a single insert into course_student guarded by the
+ * uk_course_student constraint; both happen in one transaction, so a duplicate gives its
+ * seat back. The roster collection on Course is never written for enrollments.
+ */
+@Slf4j
+@Service
+public class CourseSeatService {
+
+    public enum Outcome { ENROLLED, ALREADY_ENROLLED, FULL, NO_COURSE }
+
+    private final CourseRepository courseRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public CourseSeatService(CourseRepository courseRepository,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager) {
+        this.courseRepository = courseRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /** Bring counters in line with course_student, e.g. for rosters written before the column existed. */
+    @PostConstruct
+    void reconcile() {
+        int fixed = jdbcTemplate.update("""
+                update course c set enrolled_count =
+                    (select count(*) from course_student cs where cs.course_id = c.id)
+                where c.enrolled_count <> (select count(*) from course_student cs where cs.course_id = c.id)
+                """);
+        if (fixed > 0) {
+            log.info("Reconciled enrolled_count on {} courses", fixed);
+        }
+    }
+
+    public Outcome enroll(Long courseId, Long studentId) {
+        if (courseRepository.existsByIdAndEnrolledStudentsId(courseId, studentId)) {
+            return Outcome.ALREADY_ENROLLED;
+        }
+        try {
+            return transactionTemplate.execute(status -> {
+                if (courseRepository.takeSeat(courseId) == 0) {
+                    return courseRepository.existsById(courseId) ? Outcome.FULL : Outcome.NO_COURSE;
+                }
+                courseRepository.insertEnrollment(courseId, studentId);
+                return Outcome.ENROLLED;
+            });
+        } catch (DataIntegrityViolationException duplicate) {
+            // A concurrent request for the same student got there first
+            log.debug("Student {} already enrolled in course {}", studentId, courseId);
+            return Outcome.ALREADY_ENROLLED;
+        }
+    }
+
+    /** Give up the student's seat; returns false if they were not enrolled. */
+    public boolean drop(Long courseId, Long studentId) {
+        Boolean dropped = transactionTemplate.execute(status -> {
+            if (courseRepository.deleteEnrollment(courseId, studentId) == 0) {
+                return false;
+            }
+            courseRepository.releaseSeat(courseId);
+            return true;
+        });
+        return Boolean.TRUE.equals(dropped);
+    }
+}
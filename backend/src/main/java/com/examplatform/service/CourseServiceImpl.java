@@ -4,6 +4,7 @@ import com.examplatform.model.Course;
 import com.examplatform.repository.CourseRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,10 +12,12 @@ import java.util.List;
 public class CourseServiceImpl implements CourseService {
 
     private final CourseRepository courseRepository;
+    private final CourseCatalogService courseCatalog;
 
     @Autowired
-    public CourseServiceImpl(CourseRepository courseRepository) {
+    public CourseServiceImpl(CourseRepository courseRepository, CourseCatalogService courseCatalog) {
         this.courseRepository = courseRepository;
+        this.courseCatalog = courseCatalog;
     }
 
     @Override
@@ -25,10 +28,13 @@ public class CourseServiceImpl implements CourseService {
         if(course.getEnrolledStudents() == null) {
             course.setEnrolledStudents(new ArrayList<>());
         }
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        courseCatalog.indexed(saved);
+        return saved;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Course> getAllCourses() {
         return courseRepository.findAll();
     }
@@ -0,0 +1,357 @@
+package com.examplatform.service;
+
+import com.examplatform.model.WaitlistEntry;
+import com.examplatform.repository.WaitlistEntryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * First-come, first-served waitlists for full courses, persisted in course_waitlist and
+ * indexed in memory as one {@link OrderStatisticTree} of entry ids per course, so a
+ * student's position is an O(log n) lookup that never touches the database. Asking
+ * again while queued returns the existing place.
+ *
+ * Seats are handed out by {@link #promotePending}, on a fixed delay, for courses flagged
+ * through {@link #requestPromotion} (a drop, a capacity increase, or a new entry that may
+ * have raced a drop). Each batch is one transaction: lock the course row and the rows of
+ * the head of the queue, enroll as many of the students still queued as there are free
+ * seats, bump enrolled_count by that many and delete their entries. Emptied queues are
+ * dropped from the index. The index is loaded at startup and, like the other in-memory
+ * stores, assumes a single application node.
+ */
+@Slf4j
+@Service
+public class CourseWaitlistService {
+
+    /** A queued student's one-based place among {@code size} entries. */
+    public record Position(int position, int size) {}
+
+    private record Entry(long id, long studentId) {}
+
+    private static final class Queue {
+        final OrderStatisticTree<Entry> entries = new OrderStatisticTree<>(Comparator.comparingLong(Entry::id));
+        final Map<Long, Entry> byStudent = new HashMap<>();
+        /** Set, under the queue's lock, once it has been taken out of {@code queues}. */
+        boolean retired;
+
+        boolean offer(Entry entry) {
+            if (byStudent.putIfAbsent(entry.studentId(), entry) != null) {
+                return false;
+            }
+            entries.add(entry);
+            return true;
+        }
+
+        boolean remove(Entry entry) {
+            if (!byStudent.remove(entry.studentId(), entry)) {
+                return false;
+            }
+            entries.remove(entry);
+            return true;
+        }
+
+        Position position(Entry entry) {
+            return new Position(entries.rank(entry) + 1, entries.size());
+        }
+    }
+
+    private final Map<Long, Queue> queues = new ConcurrentHashMap<>();
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter promotions;
+
+    @Autowired
+    public CourseWaitlistService(WaitlistEntryRepository waitlistEntryRepository,
+                                 NamedParameterJdbcTemplate jdbc,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${course.waitlist.batch-size:100}") int batchSize) {
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.jdbc = jdbc;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.promotions = Counter.builder("course.waitlist.promotions")
+                .description("Waitlisted students enrolled into a freed seat")
+                .register(meterRegistry);
+
+        Gauge.builder("course.waitlist.entries", waiting, AtomicInteger::get)
+                .description("Students waiting for a seat, across all courses")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void load() {
+        jdbc.query("select id, course_id, student_id from course_waitlist", rs -> {
+            Entry entry = new Entry(rs.getLong(1), rs.getLong(3));
+            if (withQueue(rs.getLong(2), queue -> queue.offer(entry))) {
+                waiting.incrementAndGet();
+            }
+        });
+        // Seats may have been freed while the application was down
+        pending.addAll(queues.keySet());
+        log.info("Loaded {} waitlist entries for {} courses", waiting.get(), queues.size());
+    }
+
+    public Optional<Position> position(Long courseId, Long studentId) {
+        Queue queue = queues.get(courseId);
+        if (queue == null) {
+            return Optional.empty();
+        }
+        synchronized (queue) {
+            Entry entry = queue.byStudent.get(studentId);
+            return entry == null ? Optional.empty() : Optional.of(queue.position(entry));
+        }
+    }
+
+    public boolean hasWaiting(Long courseId) {
+        Queue queue = queues.get(courseId);
+        if (queue == null) {
+            return false;
+        }
+        synchronized (queue) {
+            return !queue.entries.isEmpty();
+        }
+    }
+
+    /** Queue the student, or return their existing place. */
+    public Position join(Long courseId, Long studentId) {
+        Optional<Position> existing = position(courseId, studentId);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        WaitlistEntry saved;
+        try {
+            saved = transactionTemplate.execute(status -> waitlistEntryRepository.saveAndFlush(
+                    new WaitlistEntry(courseId, studentId, Instant.now().truncatedTo(ChronoUnit.MICROS))));
+        } catch (DataIntegrityViolationException alreadyQueued) {
+            // A concurrent request for the same student inserted first
+            saved = waitlistEntryRepository.findByCourseIdAndStudentId(courseId, studentId)
+                    .orElseThrow(() -> alreadyQueued);
+        }
+        Entry entry = new Entry(saved.getId(), studentId);
+        Position position = withQueue(courseId, queue -> {
+            if (queue.offer(entry)) {
+                waiting.incrementAndGet();
+            }
+            return queue.position(queue.byStudent.get(studentId));
+        });
+        log.debug("Student {} waitlisted for course {} at {}/{}", studentId, courseId,
+                position.position(), position.size());
+        // The seat that made the course full may have been dropped meanwhile
+        requestPromotion(courseId);
+        return position;
+    }
+
+    /** Leave the queue; returns false if the student was not on it. */
+    public boolean leave(Long courseId, Long studentId) {
+        boolean deleted = Boolean.TRUE.equals(transactionTemplate.execute(
+                status -> waitlistEntryRepository.deleteByCourseAndStudent(courseId, studentId) > 0));
+        Queue queue = queues.get(courseId);
+        if (queue != null) {
+            synchronized (queue) {
+                Entry entry = queue.byStudent.get(studentId);
+                if (entry != null && !queue.retired && queue.remove(entry)) {
+                    waiting.decrementAndGet();
+                }
+                retireIfEmpty(courseId, queue);
+            }
+        }
+        return deleted;
+    }
+
+    /** Drop the whole queue of a deleted course. */
+    public void removeCourse(Long courseId) {
+        transactionTemplate.executeWithoutResult(status -> waitlistEntryRepository.deleteByCourse(courseId));
+        forgetCourse(courseId);
+        pending.remove(courseId);
+    }
+
+    /** Flag the course for the next promotion pass, e.g. after a drop or a capacity increase. */
+    public void requestPromotion(Long courseId) {
+        if (queues.containsKey(courseId)) {
+            pending.add(courseId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${course.waitlist.promote-interval-ms:1000}")
+    public void promotePending() {
+        for (Long courseId : List.copyOf(pending)) {
+            pending.remove(courseId);
+            try {
+                int promoted = promote(courseId);
+                if (promoted > 0) {
+                    log.info("Enrolled {} waitlisted students in course {}", promoted, courseId);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Waitlist promotion for course {} failed, will retry: {}", courseId, e.getMessage());
+                pending.add(courseId);
+            }
+        }
+    }
+
+    /** Fill the course's free seats from the head of its queue; returns the number enrolled. */
+    int promote(Long courseId) {
+        int enrolled = 0;
+        while (true) {
+            Queue queue = queues.get(courseId);
+            if (queue == null) {
+                return enrolled;
+            }
+            List<Entry> head;
+            synchronized (queue) {
+                head = queue.entries.first(batchSize);
+            }
+            if (head.isEmpty()) {
+                return enrolled;
+            }
+            Batch batch = transactionTemplate.execute(status -> promoteBatch(courseId, head));
+            if (batch.courseDeleted()) {
+                forgetCourse(courseId);
+                return enrolled;
+            }
+            synchronized (queue) {
+                for (Entry entry : batch.done()) {
+                    if (!queue.retired && queue.remove(entry)) {
+                        waiting.decrementAndGet();
+                    }
+                }
+                retireIfEmpty(courseId, queue);
+            }
+            enrolled += batch.enrolled();
+            promotions.increment(batch.enrolled());
+            if (!batch.seatsLeft()) {
+                return enrolled;
+            }
+        }
+    }
+
+    /**
+     * {@code done}: head entries that are off the queue now, enrolled or gone; with seats
+     * left over, that is the whole head.
+     */
+    private record Batch(List<Entry> done, int enrolled, boolean seatsLeft, boolean courseDeleted) {}
+
+    /**
+     * The head was read from the index outside this transaction, so each entry is locked
+     * and re-read here: one that left in the meantime has no row and is skipped, and a
+     * leave that comes after waits for this batch and then finds the student enrolled.
+     */
+    private Batch promoteBatch(Long courseId, List<Entry> head) {
+        MapSqlParameterSource course = new MapSqlParameterSource("courseId", courseId);
+        int free;
+        try {
+            // Locks the course row: direct enrollments and drops wait for this batch
+            Integer seats = jdbc.queryForObject(
+                    "select capacity - enrolled_count from course where id = :courseId for update", course, Integer.class);
+            free = seats != null ? seats : 0;
+        } catch (EmptyResultDataAccessException deleted) {
+            jdbc.update("delete from course_waitlist where course_id = :courseId", course);
+            return new Batch(List.of(), 0, false, true);
+        }
+        if (free <= 0) {
+            return new Batch(List.of(), 0, false, false);
+        }
+        List<Entry> queued = jdbc.query(
+                "select id, student_id from course_waitlist where id in (:ids) order by id for update",
+                new MapSqlParameterSource("ids", head.stream().map(Entry::id).toList()),
+                (rs, row) -> new Entry(rs.getLong(1), rs.getLong(2)));
+        List<Entry> done = new ArrayList<>(head);
+        done.removeAll(queued);
+        if (queued.isEmpty()) {
+            return new Batch(done, 0, true, false);
+        }
+        // Students who got a seat some other way (e.g. an admin roster import) just leave the queue
+        Set<Long> alreadyEnrolled = new HashSet<>(jdbc.queryForList(
+                "select student_id from course_student where course_id = :courseId and student_id in (:studentIds)",
+                new MapSqlParameterSource("courseId", courseId)
+                        .addValue("studentIds", queued.stream().map(Entry::studentId).toList()), Long.class));
+        List<Entry> served = new ArrayList<>();
+        List<MapSqlParameterSource> links = new ArrayList<>();
+        for (Entry entry : queued) {
+            boolean enrolled = alreadyEnrolled.contains(entry.studentId());
+            if (!enrolled && links.size() == free) {
+                break;
+            }
+            served.add(entry);
+            if (!enrolled) {
+                links.add(new MapSqlParameterSource("courseId", courseId).addValue("studentId", entry.studentId()));
+            }
+        }
+        int removed = jdbc.update("delete from course_waitlist where id in (:ids)",
+                new MapSqlParameterSource("ids", served.stream().map(Entry::id).toList()));
+        if (removed != served.size()) {
+            // Cannot happen while the rows are locked; roll back rather than enroll someone who left
+            throw new IllegalStateException("Waitlist of course " + courseId + " changed during promotion");
+        }
+        if (!links.isEmpty()) {
+            jdbc.batchUpdate("insert into course_student (course_id, student_id) values (:courseId, :studentId)",
+                    links.toArray(MapSqlParameterSource[]::new));
+            jdbc.update("update course set enrolled_count = enrolled_count + :seats where id = :courseId",
+                    new MapSqlParameterSource("courseId", courseId).addValue("seats", links.size()));
+        }
+        done.addAll(served);
+        return new Batch(done, links.size(), served.size() == queued.size() && links.size() < free, false);
+    }
+
+    /** Run {@code action} under the lock of the course's queue, creating the queue if needed. */
+    private <T> T withQueue(Long courseId, Function<Queue, T> action) {
+        while (true) {
+            Queue queue = queues.computeIfAbsent(courseId, id -> new Queue());
+            synchronized (queue) {
+                if (!queue.retired) {
+                    return action.apply(queue);
+                }
+            }
+            // Emptied and removed after we looked it up; the next lookup creates a fresh one
+        }
+    }
+
+    /** Drop an emptied queue from the map; the caller holds its lock. */
+    private void retireIfEmpty(Long courseId, Queue queue) {
+        if (queue.entries.isEmpty() && !queue.retired) {
+            queue.retired = true;
+            queues.remove(courseId, queue);
+        }
+    }
+
+    private void forgetCourse(Long courseId) {
+        Queue queue = queues.remove(courseId);
+        if (queue != null) {
+            synchronized (queue) {
+                queue.retired = true;
+                waiting.addAndGet(-queue.entries.size());
+            }
+        }
+    }
+}
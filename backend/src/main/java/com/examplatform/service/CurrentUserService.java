@@ -0,0 +1,104 @@
+package com.examplatform.service;
+
+import com.examplatform.exception.ResourceNotFoundException;
+import com.examplatform.model.User;
+import com.examplatform.repository.UserRepository;
+import com.examplatform.security.JwtPrincipal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Resolves the user behind the current request. Tokens carry the user id, so the
+ * lookup is an id → {@link UserSnapshot} cache hit instead of a users/roles query per
+ * request. Anything that changes a user's email, name or role must call {@link #evict}.
+ */
+@Slf4j
+@Service
+public class CurrentUserService {
+
+    private final UserRepository userRepository;
+    private final Map<Long, UserSnapshot> snapshots;
+    /** Bumped by every {@link #evict}; guarded by {@code snapshots}. */
+    private long evictions;
+
+    @Autowired
+    public CurrentUserService(UserRepository userRepository,
+                              @Value("${auth.user-cache-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.snapshots = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserSnapshot> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /** User named by the bearer token, or null if the request is not authenticated. */
+    public UserSnapshot fromToken() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof JwtPrincipal principal)) {
+            return null;
+        }
+        if (principal.userId() != null) {
+            return byId(principal.userId());
+        }
+        // Issued before tokens carried the id
+        return byEmail(principal.subject()).orElse(null);
+    }
+
+    public UserSnapshot byId(Long id) {
+        UserSnapshot cached;
+        long seen;
+        synchronized (snapshots) {
+            cached = snapshots.get(id);
+            seen = evictions;
+        }
+        if (cached != null) {
+            return cached;
+        }
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        return remember(user, seen);
+    }
+
+    public Optional<UserSnapshot> byEmail(String email) {
+        if (email == null || email.isEmpty()) {
+            return Optional.empty();
+        }
+        long seen;
+        synchronized (snapshots) {
+            seen = evictions;
+        }
+        return userRepository.findByEmail(email).map(user -> remember(user, seen));
+    }
+
+    public void evict(Long id) {
+        synchronized (snapshots) {
+            snapshots.remove(id);
+            evictions++;
+        }
+        log.debug("Evicted user snapshot {}", id);
+    }
+
+    /**
+     * Caches the snapshot unless an eviction landed after {@code seen} was read: the row
+     * may predate that edit, so this caller gets it but the cache does not keep it.
+     */
+    private UserSnapshot remember(User user, long seen) {
+        UserSnapshot snapshot = UserSnapshot.of(user);
+        synchronized (snapshots) {
+            if (evictions == seen) {
+                snapshots.put(user.getId(), snapshot);
+            }
+        }
+        return snapshot;
+    }
+}
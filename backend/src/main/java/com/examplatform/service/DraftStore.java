@@ -0,0 +1,185 @@
+package com.examplatform.service;
+
+import com.examplatform.exception.TooManyRequestsException;
+import com.examplatform.repository.ExamAttemptRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalescing store for autosaved answers.
+ *
+ * Each save replaces the previous draft for the same (student, exam) in memory and
+ * marks it dirty. A scheduled flush writes only the latest version of each dirty
+ * draft onto its exam_attempt row in one JDBC batch, so any number of autosaves
+ * within a flush interval cost at most one row update per student. A failed flush
+ * marks its drafts dirty again, and idle drafts are only evicted once the version in
+ * memory is the one that was written.
+ */
+@Slf4j
+@Service
+public class DraftStore {
+
+    /** Answers saved for an attempt in progress. */
+    public record Draft(Long attemptId, List<Long> questionIds, List<String> answers, Instant savedAt) {}
+
+    private record Key(long studentId, long examId) {}
+
+    private final Map<Key, Draft> drafts = new ConcurrentHashMap<>();
+    private final Set<Key> dirty = ConcurrentHashMap.newKeySet();
+    // savedAt of the version last written for each key; only drafts written as-is may be evicted
+    private final Map<Key, Instant> persisted = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final ExamAttemptRepository examAttemptRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int capacity;
+    private final Duration idleEviction;
+    private final long retryAfterSeconds;
+    private final Counter saves;
+    private final Counter writes;
+
+    @Autowired
+    public DraftStore(JdbcTemplate jdbcTemplate,
+                      ExamAttemptRepository examAttemptRepository,
+                      MeterRegistry meterRegistry,
+                      @Value("${exam.drafts.capacity:100000}") int capacity,
+                      @Value("${exam.drafts.idle-eviction-minutes:30}") long idleEvictionMinutes,
+                      @Value("${exam.drafts.flush-interval-ms:5000}") long flushIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.examAttemptRepository = examAttemptRepository;
+        this.capacity = capacity;
+        this.idleEviction = Duration.ofMinutes(idleEvictionMinutes);
+        this.retryAfterSeconds = Math.max(1, flushIntervalMs / 1000);
+
+        Gauge.builder("exam.drafts.size", drafts, Map::size)
+                .description("Drafts held in memory")
+                .register(meterRegistry);
+        Gauge.builder("exam.drafts.dirty", dirty, Set::size)
+                .description("Drafts waiting to be written")
+                .register(meterRegistry);
+        this.saves = Counter.builder("exam.drafts.saves")
+                .description("Autosave requests accepted")
+                .register(meterRegistry);
+        this.writes = Counter.builder("exam.drafts.writes")
+                .description("Draft rows written to the database")
+                .register(meterRegistry);
+    }
+
+    public void save(Long studentId, Long examId, Draft draft) {
+        Key key = new Key(studentId, examId);
+        if (drafts.size() >= capacity && !drafts.containsKey(key)) {
+            throw new TooManyRequestsException("Autosave is busy, please retry", retryAfterSeconds);
+        }
+        drafts.put(key, draft);
+        dirty.add(key);
+        saves.increment();
+    }
+
+    /** Latest draft, from memory or from the attempt row after a restart. */
+    public Draft find(Long studentId, Long examId, Long attemptId) {
+        Draft draft = drafts.get(new Key(studentId, examId));
+        if (draft != null && draft.attemptId().equals(attemptId)) {
+            return draft;
+        }
+        return examAttemptRepository.findById(attemptId)
+                .filter(a -> a.getDraftAnswers() != null)
+                .map(a -> read(a.getId(), a.getDraftAnswers(), a.getDraftSavedAt()))
+                .orElse(null);
+    }
+
+    /** Forget the draft once the attempt has been submitted. */
+    public void discard(Long studentId, Long examId) {
+        Key key = new Key(studentId, examId);
+        dirty.remove(key);
+        drafts.remove(key);
+        persisted.remove(key);
+    }
+
+    @Scheduled(fixedDelayString = "${exam.drafts.flush-interval-ms:5000}")
+    public void flush() {
+        if (!dirty.isEmpty()) {
+            List<Key> keys = new ArrayList<>(dirty.size());
+            List<Draft> written = new ArrayList<>(dirty.size());
+            List<Object[]> rows = new ArrayList<>(dirty.size());
+            for (Key key : dirty) {
+                dirty.remove(key); // before reading, so a concurrent save re-marks it
+                Draft draft = drafts.get(key);
+                if (draft != null) {
+                    keys.add(key);
+                    written.add(draft);
+                    rows.add(new Object[]{write(draft), Timestamp.from(draft.savedAt()), draft.attemptId()});
+                }
+            }
+            if (!rows.isEmpty()) {
+                try {
+                    jdbcTemplate.batchUpdate(
+                            "update exam_attempt set draft_answers = ?, draft_saved_at = ? where id = ? and open_key is not null",
+                            rows);
+                } catch (RuntimeException e) {
+                    dirty.addAll(keys);
+                    throw e;
+                }
+                for (int i = 0; i < keys.size(); i++) {
+                    persisted.put(keys.get(i), written.get(i).savedAt());
+                }
+                writes.increment(rows.size());
+                log.debug("Flushed {} drafts", rows.size());
+            }
+        }
+        Instant idleBefore = Instant.now().minus(idleEviction);
+        drafts.entrySet().removeIf(e -> {
+            Key key = e.getKey();
+            Instant savedAt = e.getValue().savedAt();
+            if (dirty.contains(key) || !savedAt.isBefore(idleBefore) || !savedAt.equals(persisted.get(key))) {
+                return false;
+            }
+            persisted.remove(key);
+            return true;
+        });
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private String write(Draft draft) {
+        try {
+            return objectMapper.writeValueAsString(Map.of(
+                    "questionIds", draft.questionIds(),
+                    "answers", draft.answers()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize draft", e);
+        }
+    }
+
+    private Draft read(Long attemptId, String json, Instant savedAt) {
+        try {
+            StoredDraft stored = objectMapper.readValue(json, StoredDraft.class);
+            return new Draft(attemptId, stored.questionIds(), stored.answers(), savedAt);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable draft on attempt {}", attemptId);
+            return null;
+        }
+    }
+
+    record StoredDraft(List<Long> questionIds, List<String> answers) {}
+}
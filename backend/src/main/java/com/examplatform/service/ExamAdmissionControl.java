@@ -0,0 +1,225 @@
+package com.examplatform.service;
+
+import com.examplatform.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limits for starting and submitting exams.
+ *
+ * A request needs a permit for its exam and then a global one. Both gates are fair
+ * semaphores with a short, bounded wait; once a gate already has its queue full of
+ * waiters, or the wait runs out, the request is turned away with 429 instead of
+ * piling onto Tomcat threads and the connection pool.
+ *
+ * Gates are created on demand for whatever exam id a request names, so they are also
+ * evicted: a sweep drops gates that have been idle for {@code gate-idle-ms}, and once
+ * more than {@code max-gates} exist, admitting a new exam first drops every idle one.
+ * A request that picked up a gate just as it was dropped retries on the new one, so an
+ * exam never has two live gates.
+ */
+@Slf4j
+@Service
+public class ExamAdmissionControl {
+
+    /** Permits held by one admitted request; release exactly once. */
+    public record Ticket(Gate exam, Gate global) {
+        public void release() {
+            global.semaphore.release();
+            exam.semaphore.release();
+        }
+    }
+
+    static final class Gate {
+        final int limit;
+        final Semaphore semaphore;
+        final AtomicInteger waiting = new AtomicInteger();
+        volatile long lastUsed = System.nanoTime();
+
+        Gate(int limit) {
+            this.limit = limit;
+            this.semaphore = new Semaphore(limit, true);
+        }
+
+        int inFlight() {
+            return limit - semaphore.availablePermits();
+        }
+
+        boolean idleSince(long cutoff) {
+            return inFlight() == 0 && waiting.get() == 0 && lastUsed - cutoff < 0;
+        }
+    }
+
+    private final Gate global;
+    private final Map<Long, Gate> exams = new ConcurrentHashMap<>();
+    private final int perExamLimit;
+    private final int maxWaiting;
+    private final long maxWaitMs;
+    private final long retryAfterSeconds;
+    private final int maxGates;
+    private final long gateIdleNanos;
+    private final Timer waitTimer;
+    private final Counter admitted;
+    private final Counter rejected;
+
+    @Autowired
+    public ExamAdmissionControl(MeterRegistry meterRegistry,
+                                @Value("${exam.admission.global-limit:100}") int globalLimit,
+                                @Value("${exam.admission.per-exam-limit:40}") int perExamLimit,
+                                @Value("${exam.admission.max-waiting:200}") int maxWaiting,
+                                @Value("${exam.admission.max-wait-ms:2000}") long maxWaitMs,
+                                @Value("${exam.admission.retry-after-seconds:2}") long retryAfterSeconds,
+                                @Value("${exam.admission.max-gates:10000}") int maxGates,
+                                @Value("${exam.admission.gate-idle-ms:600000}") long gateIdleMs) {
+        this.global = new Gate(globalLimit);
+        this.perExamLimit = perExamLimit;
+        this.maxWaiting = maxWaiting;
+        this.maxWaitMs = maxWaitMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.maxGates = maxGates;
+        this.gateIdleNanos = TimeUnit.MILLISECONDS.toNanos(gateIdleMs);
+
+        Gauge.builder("exam.admission.gates", exams, Map::size)
+                .description("Exams with an admission gate")
+                .register(meterRegistry);
+        Gauge.builder("exam.admission.in_flight", global, Gate::inFlight)
+                .description("Exam start/submit requests currently admitted")
+                .register(meterRegistry);
+        Gauge.builder("exam.admission.waiting", global.waiting, AtomicInteger::get)
+                .description("Requests waiting for a global permit")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("exam.admission.wait")
+                .description("Time spent waiting for admission")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.admitted = Counter.builder("exam.admission.admitted").register(meterRegistry);
+        this.rejected = Counter.builder("exam.admission.rejected")
+                .description("Requests shed with 429")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Wait briefly for a permit on the exam and on the whole node.
+     *
+     * @throws TooManyRequestsException if either gate is saturated
+     */
+    public Ticket admit(Long examId) {
+        long start = System.nanoTime();
+        Gate exam;
+        while (true) {
+            exam = gate(examId);
+            if (!enter(exam, maxWaitMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))) {
+                throw reject("exam " + examId);
+            }
+            exam.lastUsed = System.nanoTime();
+            if (exams.get(examId) == exam) {
+                break;
+            }
+            // Evicted between lookup and acquire: its permits no longer limit anything
+            exam.semaphore.release();
+        }
+        long remaining = maxWaitMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (!enter(global, Math.max(0, remaining))) {
+            exam.semaphore.release();
+            throw reject("global");
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        admitted.increment();
+        return new Ticket(exam, global);
+    }
+
+    private Gate gate(Long examId) {
+        Gate gate = exams.get(examId);
+        if (gate != null) {
+            return gate;
+        }
+        if (exams.size() >= maxGates) {
+            evictIdle(System.nanoTime());
+        }
+        return exams.computeIfAbsent(examId, id -> new Gate(perExamLimit));
+    }
+
+    @Scheduled(fixedDelayString = "${exam.admission.gate-sweep-ms:60000}")
+    public void evictIdleGates() {
+        evictIdle(System.nanoTime() - gateIdleNanos);
+    }
+
+    /** Drop gates with nothing in flight or waiting that were last used before {@code cutoff}. */
+    void evictIdle(long cutoff) {
+        int before = exams.size();
+        for (Long examId : exams.keySet()) {
+            exams.computeIfPresent(examId, (id, gate) -> gate.idleSince(cutoff) ? null : gate);
+        }
+        log.debug("Evicted {} idle admission gates", before - exams.size());
+    }
+
+    int gateCount() {
+        return exams.size();
+    }
+
+    /** Current limits and occupancy, for the actuator endpoint. */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> perExam = new LinkedHashMap<>();
+        exams.forEach((examId, gate) -> {
+            if (gate.inFlight() > 0 || gate.waiting.get() > 0) {
+                perExam.put(String.valueOf(examId), describe(gate));
+            }
+        });
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("global", describe(global));
+        state.put("perExamLimit", perExamLimit);
+        state.put("maxWaiting", maxWaiting);
+        state.put("maxWaitMs", maxWaitMs);
+        state.put("admitted", (long) admitted.count());
+        state.put("rejected", (long) rejected.count());
+        state.put("exams", perExam);
+        return state;
+    }
+
+    private boolean enter(Gate gate, long waitMs) {
+        if (gate.semaphore.tryAcquire()) {
+            return true;
+        }
+        if (gate.waiting.incrementAndGet() > maxWaiting) {
+            gate.waiting.decrementAndGet();
+            return false;
+        }
+        try {
+            return gate.semaphore.tryAcquire(waitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            gate.waiting.decrementAndGet();
+        }
+    }
+
+    private TooManyRequestsException reject(String gate) {
+        rejected.increment();
+        log.debug("Shedding exam request at {} gate", gate);
+        return new TooManyRequestsException("Too many students are starting or submitting right now, please retry",
+                retryAfterSeconds);
+    }
+
+    private static Map<String, Object> describe(Gate gate) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("limit", gate.limit);
+        m.put("inFlight", gate.inFlight());
+        m.put("waiting", gate.waiting.get());
+        return m;
+    }
+}
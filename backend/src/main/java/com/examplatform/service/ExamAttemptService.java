@@ -0,0 +1,146 @@
+package com.examplatform.service;
+
+import com.examplatform.model.ExamAttempt;
+import com.examplatform.repository.ExamAttemptRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Creates and tracks {@link ExamAttempt}s. Open attempts are also kept in memory, so
+ * reloading an exam in progress does not touch the exam_attempt table.
+ */
+@Slf4j
+@Service
+public class ExamAttemptService {
+
+    /** Snapshot of an attempt in progress. */
+    public record OpenAttempt(Long id, Long studentId, Long examId, List<Long> questionIds, long[] sortedIds) {
+        public boolean issued(Long questionId) {
+            return questionId != null && Arrays.binarySearch(sortedIds, questionId) >= 0;
+        }
+    }
+
+    private final ExamAttemptRepository examAttemptRepository;
+    private final AttemptLedgerService attemptLedger;
+    // Least recently used first; an evicted attempt is read back from exam_attempt on next use
+    private final Map<String, OpenAttempt> openAttempts;
+
+    @Autowired
+    public ExamAttemptService(ExamAttemptRepository examAttemptRepository,
+                              AttemptLedgerService attemptLedger,
+                              @Value("${exam.attempts.open-cache-size:50000}") int maxCached) {
+        this.examAttemptRepository = examAttemptRepository;
+        this.attemptLedger = attemptLedger;
+        this.openAttempts = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, OpenAttempt> eldest) {
+                return size() > maxCached;
+            }
+        };
+    }
+
+    /**
+     * Return the student's attempt in progress, or start one by drawing this attempt's
+     * questions from a fresh seed.
+     */
+    public OpenAttempt startOrResume(Long studentId, AnswerKey key) {
+        Long examId = key.examId();
+        String openKey = ExamAttempt.openKey(studentId, examId);
+        OpenAttempt open = findOpen(openKey);
+        if (open != null) {
+            return open;
+        }
+        if (!attemptLedger.hasAttemptsLeft(studentId, examId, key.maxAttempts())) {
+            throw new RuntimeException("Exam already submitted");
+        }
+
+        long seed = ThreadLocalRandom.current().nextLong();
+        long[] drawn = key.drawQuestions(seed);
+        ExamAttempt attempt = new ExamAttempt();
+        attempt.setStudentId(studentId);
+        attempt.setExamId(examId);
+        attempt.setSeed(seed);
+        attempt.setQuestionIds(toList(drawn));
+        attempt.setOpenKey(openKey);
+        attempt.setStartedAt(Instant.now());
+        try {
+            attempt = examAttemptRepository.save(attempt);
+            log.debug("Started attempt {} for student {} exam {} with {} questions",
+                    attempt.getId(), studentId, examId, drawn.length);
+        } catch (DataIntegrityViolationException raced) {
+            // Another request (second tab, double click) opened it first.
+            attempt = examAttemptRepository.findByOpenKey(openKey).orElseThrow(() -> raced);
+        }
+        return remember(attempt);
+    }
+
+    public OpenAttempt requireOpen(Long studentId, Long examId) {
+        OpenAttempt open = findOpen(ExamAttempt.openKey(studentId, examId));
+        if (open == null) {
+            throw new RuntimeException("No exam in progress, open the exam before submitting");
+        }
+        return open;
+    }
+
+    /**
+     * Close the attempt for grading. Only one caller can win, so a double submit of the
+     * same attempt is rejected here.
+     */
+    public void close(OpenAttempt attempt) {
+        synchronized (openAttempts) {
+            openAttempts.remove(ExamAttempt.openKey(attempt.studentId(), attempt.examId()));
+        }
+        if (examAttemptRepository.close(attempt.id(), Instant.now()) == 0) {
+            throw new RuntimeException("Exam already submitted");
+        }
+    }
+
+    /** Undo {@link #close} when the submission could not be recorded. */
+    public void reopen(OpenAttempt attempt) {
+        String openKey = ExamAttempt.openKey(attempt.studentId(), attempt.examId());
+        examAttemptRepository.reopen(attempt.id(), openKey);
+        synchronized (openAttempts) {
+            openAttempts.put(openKey, attempt);
+        }
+    }
+
+    private OpenAttempt findOpen(String openKey) {
+        OpenAttempt cached;
+        synchronized (openAttempts) {
+            cached = openAttempts.get(openKey);
+        }
+        if (cached != null) {
+            return cached;
+        }
+        return examAttemptRepository.findByOpenKey(openKey).map(this::remember).orElse(null);
+    }
+
+    private OpenAttempt remember(ExamAttempt attempt) {
+        List<Long> ids = List.copyOf(attempt.getQuestionIds());
+        long[] sorted = new long[ids.size()];
+        for (int i = 0; i < sorted.length; i++) sorted[i] = ids.get(i);
+        Arrays.sort(sorted);
+        OpenAttempt open = new OpenAttempt(attempt.getId(), attempt.getStudentId(), attempt.getExamId(), ids, sorted);
+        synchronized (openAttempts) {
+            openAttempts.put(attempt.getOpenKey(), open);
+        }
+        return open;
+    }
+
+    private static List<Long> toList(long[] ids) {
+        List<Long> list = new ArrayList<>(ids.length);
+        for (long id : ids) list.add(id);
+        return list;
+    }
+}
@@ -0,0 +1,43 @@
+package com.examplatform.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Single place to call after an exam or its questions change. Drops the compiled
+ * answer key and the rendered payload now and again once the surrounding transaction
+ * commits. This relies on both caches registering their entry before they read the
+ * database: a load that started before the commit is evicted along with its placeholder,
+ * and its result goes only to the callers already waiting on it, never into the cache.
+ */
+@Service
+public class ExamCacheInvalidator {
+
+    private final AnswerKeyCache answerKeyCache;
+    private final ExamPayloadCache examPayloadCache;
+
+    @Autowired
+    public ExamCacheInvalidator(AnswerKeyCache answerKeyCache, ExamPayloadCache examPayloadCache) {
+        this.answerKeyCache = answerKeyCache;
+        this.examPayloadCache = examPayloadCache;
+    }
+
+    public void evict(Long examId) {
+        evictNow(examId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(examId);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Long examId) {
+        answerKeyCache.evict(examId);
+        examPayloadCache.evict(examId);
+    }
+}
@@ -0,0 +1,146 @@
+package com.examplatform.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-exam leaderboards held as {@link OrderStatisticTree}s of each student's best
+ * result, ordered by score descending, then submission time, then result id. Rank
+ * lookups and top-N reads are O(log n) and never touch exam_result.
+ *
+ * A board is built from exam_result with one query the first time the exam is asked
+ * about (so after a restart, too) and then kept current as results are committed.
+ * Results recorded for an exam with no board are ignored; the next load reads them
+ * from the table. Applying a result is idempotent, so one that is both loaded and
+ * recorded is counted once. Boards nobody has read for {@code idle-ms} are dropped.
+ */
+@Slf4j
+@Service
+public class ExamLeaderboardService {
+
+    /** A student's best result on an exam. */
+    public record Standing(long resultId, long studentId, int score, Instant submittedAt) {}
+
+    /** A standing with its one-based rank among {@code total} students. */
+    public record Position(int rank, int total, Standing standing) {}
+
+    // Results from before submitted_at existed sort ahead of timed ones with the same score.
+    static final Comparator<Standing> ORDER = (a, b) -> {
+        int c = Integer.compare(b.score(), a.score());
+        if (c != 0) return c;
+        c = Comparator.nullsFirst(Comparator.<Instant>naturalOrder()).compare(a.submittedAt(), b.submittedAt());
+        return c != 0 ? c : Long.compare(a.resultId(), b.resultId());
+    };
+
+    private static final class Board {
+        final OrderStatisticTree<Standing> tree = new OrderStatisticTree<>(ORDER);
+        final Map<Long, Standing> byStudent = new HashMap<>();
+        boolean loaded;
+        volatile long lastRead = System.nanoTime();
+
+        void offer(Standing standing) {
+            Standing current = byStudent.get(standing.studentId());
+            if (current != null) {
+                if (ORDER.compare(current, standing) <= 0) {
+                    return;
+                }
+                tree.remove(current);
+            }
+            tree.add(standing);
+            byStudent.put(standing.studentId(), standing);
+        }
+    }
+
+    private final Map<Long, Board> boards = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final long idleNanos;
+
+    @Autowired
+    public ExamLeaderboardService(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                                  @Value("${exam.leaderboard.idle-ms:1800000}") long idleMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMs);
+
+        Gauge.builder("exam.leaderboard.boards", boards, Map::size)
+                .description("Exams with an in-memory leaderboard")
+                .register(meterRegistry);
+    }
+
+    /** Apply a result that has been committed. */
+    public void record(Long examId, Standing standing) {
+        Board board = boards.get(examId);
+        if (board == null) {
+            return;
+        }
+        synchronized (board) {
+            board.offer(standing);
+        }
+    }
+
+    public Optional<Position> position(Long examId, Long studentId) {
+        Board board = board(examId);
+        synchronized (board) {
+            Standing standing = board.byStudent.get(studentId);
+            if (standing == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new Position(board.tree.rank(standing) + 1, board.tree.size(), standing));
+        }
+    }
+
+    /** The best {@code limit} standings, first place first. */
+    public List<Standing> top(Long examId, int limit) {
+        Board board = board(examId);
+        synchronized (board) {
+            return board.tree.first(limit);
+        }
+    }
+
+    private Board board(Long examId) {
+        Board board = boards.computeIfAbsent(examId, id -> new Board());
+        // Loaded under the board's lock: readers and the submission flusher wait for the
+        // one query rather than seeing a partial board.
+        synchronized (board) {
+            if (!board.loaded) {
+                load(examId, board);
+                board.loaded = true;
+            }
+        }
+        board.lastRead = System.nanoTime();
+        return board;
+    }
+
+    private void load(Long examId, Board board) {
+        long start = System.nanoTime();
+        jdbcTemplate.query("select id, student_id, score, submitted_at from exam_result where exam_id = ?",
+                rs -> {
+                    Timestamp submittedAt = rs.getTimestamp(4);
+                    board.offer(new Standing(rs.getLong(1), rs.getLong(2), rs.getInt(3),
+                            submittedAt != null ? submittedAt.toInstant() : null));
+                }, examId);
+        log.debug("Loaded leaderboard for exam {}: {} students in {} ms", examId, board.tree.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Scheduled(fixedDelayString = "${exam.leaderboard.sweep-interval-ms:300000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        boards.entrySet().removeIf(e -> now - e.getValue().lastRead > idleNanos);
+    }
+}
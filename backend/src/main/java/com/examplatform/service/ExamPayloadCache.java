@@ -0,0 +1,172 @@
+package com.examplatform.service;
+
+import com.examplatform.dto.ExamPayload;
+import com.examplatform.exception.ResourceNotFoundException;
+import com.examplatform.model.Exam;
+import com.examplatform.model.OptionValue;
+import com.examplatform.model.Question;
+import com.examplatform.repository.ExamRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-rendered, answer-free JSON for published exams.
+ *
+ * Each exam is serialized once into a header, one UTF-8 fragment per question and a
+ * footer. Serving an attempt concatenates the header with that attempt's question
+ * fragments, so a class opening the exam together costs array copies rather than a
+ * database round trip and a Jackson pass each. correctAnswer, the options' isCorrect
+ * flags and the course roster never make it into the bytes.
+ */
+@Slf4j
+@Service
+public class ExamPayloadCache {
+
+    record QuestionView(Long id, String text, int marks, List<OptionView> options) {}
+
+    record OptionView(String optionText) {}
+
+    /** One rendered exam version. {@code questionIds} is sorted; fragments are parallel to it. */
+    record Rendered(byte[] header, long[] questionIds, byte[][] fragments, byte[] footer, String version) {
+        byte[] assemble(List<Long> issued) {
+            byte[][] parts = new byte[issued.size()][];
+            int length = header.length + footer.length + Math.max(0, issued.size() - 1);
+            for (int i = 0; i < parts.length; i++) {
+                int idx = Arrays.binarySearch(questionIds, issued.get(i));
+                parts[i] = idx >= 0 ? fragments[idx] : null;
+                length += parts[i] != null ? parts[i].length : 0;
+            }
+            byte[] body = new byte[length];
+            int pos = 0;
+            System.arraycopy(header, 0, body, pos, header.length);
+            pos += header.length;
+            boolean first = true;
+            for (byte[] part : parts) {
+                if (part == null) continue;
+                if (!first) body[pos++] = ',';
+                System.arraycopy(part, 0, body, pos, part.length);
+                pos += part.length;
+                first = false;
+            }
+            System.arraycopy(footer, 0, body, pos, footer.length);
+            pos += footer.length;
+            return pos == body.length ? body : Arrays.copyOf(body, pos);
+        }
+    }
+
+    private static final byte[] FOOTER = "]}".getBytes(StandardCharsets.UTF_8);
+
+    private final ExamRepository examRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnly;
+    private final Map<Long, CompletableFuture<Rendered>> rendered = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ExamPayloadCache(ExamRepository examRepository, ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager) {
+        this.examRepository = examRepository;
+        this.objectMapper = objectMapper;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    /** JSON body and strong ETag for one attempt's view of a published exam. */
+    public ExamPayload forAttempt(Long examId, Long attemptId, List<Long> questionIds) {
+        Rendered exam = get(examId);
+        String etag = "\"" + exam.version() + "-" + Long.toHexString(attemptId) + "\"";
+        return new ExamPayload(exam.assemble(questionIds), etag);
+    }
+
+    /** Use {@link ExamCacheInvalidator}, which also covers the commit of the edit. */
+    void evict(Long examId) {
+        rendered.remove(examId);
+        log.debug("Evicted rendered payload for exam {}", examId);
+    }
+
+    private Rendered get(Long examId) {
+        CompletableFuture<Rendered> mine = new CompletableFuture<>();
+        CompletableFuture<Rendered> existing = rendered.putIfAbsent(examId, mine);
+        if (existing == null) {
+            // Only the first caller renders; everyone else arriving meanwhile waits on it.
+            try {
+                mine.complete(readOnly.execute(status -> render(examId)));
+            } catch (RuntimeException e) {
+                rendered.remove(examId, mine);
+                mine.completeExceptionally(e);
+            }
+            existing = mine;
+        }
+        try {
+            return existing.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+    private Rendered render(Long examId) {
+        Exam exam = examRepository.findById(examId)
+                .orElseThrow(() -> new ResourceNotFoundException("Exam not found"));
+        if (!exam.isPublished()) {
+            throw new ResourceNotFoundException("Exam not found");
+        }
+        List<Question> questions = new ArrayList<>(exam.getQuestions());
+        questions.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+
+        try {
+            Map<String, Object> head = new LinkedHashMap<>();
+            head.put("id", exam.getId());
+            head.put("title", exam.getTitle());
+            head.put("courseId", exam.getCourse().getId());
+            head.put("courseName", exam.getCourse().getName());
+            head.put("duration", exam.getDuration());
+            head.put("totalScore", exam.getTotalScore());
+            head.put("passingScore", exam.getPassingScore());
+            head.put("maxAttempts", exam.getMaxAttempts());
+            head.put("numberOfQuestions", exam.getNumberOfQuestions());
+            head.put("published", exam.isPublished());
+            String headJson = objectMapper.writeValueAsString(head);
+            byte[] header = (headJson.substring(0, headJson.length() - 1) + ",\"questions\":[")
+                    .getBytes(StandardCharsets.UTF_8);
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(header);
+            long[] ids = new long[questions.size()];
+            byte[][] fragments = new byte[questions.size()][];
+            for (int i = 0; i < questions.size(); i++) {
+                Question q = questions.get(i);
+                List<OptionView> options = new ArrayList<>();
+                if (q.getOptions() != null) {
+                    for (OptionValue option : q.getOptions()) {
+                        options.add(new OptionView(option.getOptionText()));
+                    }
+                }
+                ids[i] = q.getId();
+                fragments[i] = objectMapper.writeValueAsBytes(new QuestionView(q.getId(), q.getText(), q.getMarks(), options));
+                digest.update(fragments[i]);
+            }
+            String version = HexFormat.of().formatHex(digest.digest(), 0, 8);
+            log.debug("Rendered exam {} ({} questions, version {})", examId, ids.length, version);
+            return new Rendered(header, ids, fragments, FOOTER, version);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to render exam " + examId, e);
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.examplatform.service;
 
+import com.examplatform.model.Exam;
 import com.examplatform.model.ExamResult;
 import com.examplatform.repository.ExamResultRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @Service
@@ -12,9 +18,40 @@ public class ExamResultServiceImpl implements ExamResultService {
     @Autowired
     private ExamResultRepository examResultRepository;
 
+    @Autowired
+    private StudentCourseAggregateService aggregates;
+
+    @Autowired
+    private ScoreSketchService scoreSketches;
+
+    @Autowired
+    private ExamLeaderboardService leaderboards;
+
     @Override
+    @Transactional
     public ExamResult saveExamResult(ExamResult examResult) {
-        return examResultRepository.save(examResult);
+        boolean isNew = examResult.getId() == null;
+        if (isNew && examResult.getSubmittedAt() == null) {
+            examResult.setSubmittedAt(Instant.now().truncatedTo(ChronoUnit.MICROS));
+        }
+        ExamResult saved = examResultRepository.save(examResult);
+        if (isNew) {
+            Exam exam = saved.getExam();
+            aggregates.apply(List.of(new StudentCourseAggregateService.Delta(saved.getStudent().getId(),
+                    exam.getCourse().getId(), saved.getScore(), exam.getTotalScore())));
+            Long examId = exam.getId();
+            int score = saved.getScore();
+            ExamLeaderboardService.Standing standing = new ExamLeaderboardService.Standing(
+                    saved.getId(), saved.getStudent().getId(), score, saved.getSubmittedAt());
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scoreSketches.record(examId, score);
+                    leaderboards.record(examId, standing);
+                }
+            });
+        }
+        return saved;
     }
 
     @Override
@@ -1,12 +1,17 @@
 package com.examplatform.service;
 
 import com.examplatform.dto.ExamWithQuestionsDTO;
+import com.examplatform.dto.KeysetPage;
+import com.examplatform.dto.ScoreDistribution;
 import com.examplatform.model.Course;
 import com.examplatform.model.Exam;
 import com.examplatform.model.ExamResult;
 import com.examplatform.model.User;
+import com.examplatform.projection.ExamResultRow;
+import com.examplatform.projection.InstructorExamRow;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface InstructorService {
     Course createCourse(Course course);
@@ -17,11 +22,18 @@ public interface InstructorService {
     Exam publishExam(Long examId);
     List<ExamResult> getExamResults(Long examId);
 
+    KeysetPage<ExamResultRow> getExamResultsPage(Long examId, String after, int limit);
+
+    void exportExamResults(Long examId, Consumer<ExamResultRow> sink);
+
+    ScoreDistribution getScoreDistribution(Long examId, List<Double> percentiles);
+
     List<Course> getCoursesByInstructor();
     List<User> getEnrolledStudents(Long courseId);
 
-    // New: List all exams for current instructor.
-    List<Exam> getAllExamsForInstructor();
+    /** The current instructor's exams, newest first; published null means both. */
+    KeysetPage<InstructorExamRow> getExamsForInstructor(Boolean published, String after, int limit);
+    Exam getExam(Long examId);
     Exam unpublishExam(Long examId);
     Exam updateExamWithQuestions(Long examId, ExamWithQuestionsDTO dto);
 
@@ -7,6 +7,7 @@ import com.examplatform.repository.ExamRepository;
 import com.examplatform.repository.ExamResultRepository;
 import com.examplatform.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;                  // ✅ ADD THIS
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,13 +15,22 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import com.examplatform.dto.ExamWithQuestionsDTO;
 import com.examplatform.dto.QuestionItemDTO;
+import com.examplatform.dto.KeysetPage;
+import com.examplatform.dto.ScoreDistribution;
 import com.examplatform.model.Question;
+import com.examplatform.projection.ExamResultRow;
+import com.examplatform.projection.InstructorExamRow;
+import org.springframework.data.domain.PageRequest;
 
+import java.math.BigDecimal;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Slf4j                                              // ✅ turns on `log` field
 @Service
@@ -31,21 +41,43 @@ public class InstructorServiceImpl implements InstructorService {
     private final ExamRepository examRepository;
     private final ExamResultRepository examResultRepository;
     private final UserRepository userRepository;
+    private final ExamCacheInvalidator examCacheInvalidator;
+    private final CurrentUserService currentUserService;
+    private final ScoreSketchService scoreSketches;
+    private final CourseCatalogService courseCatalog;
+    private final CourseWaitlistService courseWaitlist;
+    private final ReadYourWritesGuard readYourWrites;
 
     @Autowired
     public InstructorServiceImpl(CourseRepository courseRepository,
                                  ExamRepository examRepository,
                                  ExamResultRepository examResultRepository,
-                                 UserRepository userRepository) {
+                                 UserRepository userRepository,
+                                 ExamCacheInvalidator examCacheInvalidator,
+                                 CurrentUserService currentUserService,
+                                 ScoreSketchService scoreSketches,
+                                 CourseCatalogService courseCatalog,
+                                 CourseWaitlistService courseWaitlist,
+                                 ReadYourWritesGuard readYourWrites) {
         this.courseRepository = courseRepository;
         this.examRepository = examRepository;
         this.examResultRepository = examResultRepository;
         this.userRepository = userRepository;
+        this.examCacheInvalidator = examCacheInvalidator;
+        this.currentUserService = currentUserService;
+        this.scoreSketches = scoreSketches;
+        this.courseCatalog = courseCatalog;
+        this.courseWaitlist = courseWaitlist;
+        this.readYourWrites = readYourWrites;
     }
 
-    /** Resolve current instructor from X-User-Email header */
-    private User getCurrentInstructor() {
-        log.debug("Resolving current instructor from X-User-Email header");
+    /** Resolve current instructor from the token, falling back to the X-User-Email header */
+    private UserSnapshot getCurrentInstructor() {
+        UserSnapshot fromToken = currentUserService.fromToken();
+        if (fromToken != null) {
+            log.debug("Resolved instructor id={} from token", fromToken.id());
+            return fromToken;
+        }
         ServletRequestAttributes attr =
                 (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
 
@@ -53,13 +85,13 @@ public class InstructorServiceImpl implements InstructorService {
             String email = attr.getRequest().getHeader("X-User-Email");
             log.debug("Header X-User-Email='{}'", email);
             if (email != null && !email.isEmpty()) {
-                User u = userRepository.findByEmail(email)
+                UserSnapshot u = currentUserService.byEmail(email)
                         .orElseThrow(() -> {
                             log.debug("No instructor found for email={}", email);
                             return new ResourceNotFoundException(
                                     "Instructor not found with email: " + email);
                         });
-                log.debug("Resolved instructor id={} email={}", u.getId(), u.getEmail());
+                log.debug("Resolved instructor id={} email={}", u.id(), u.email());
                 return u;
             }
         }
@@ -67,20 +99,27 @@ public class InstructorServiceImpl implements InstructorService {
         throw new ResourceNotFoundException("Instructor email not provided in request header.");
     }
 
+    private static boolean isInstructorOf(Course course, Long instructorId) {
+        return course.getInstructors() != null
+                && course.getInstructors().stream().anyMatch(u -> instructorId.equals(u.getId()));
+    }
+
     @Override
     public Course createCourse(Course course) {
-        User currentInstructor = getCurrentInstructor();
-        log.debug("createCourse: instructorId={} name='{}'", currentInstructor.getId(), course.getName());
+        UserSnapshot currentInstructor = getCurrentInstructor();
+        log.debug("createCourse: instructorId={} name='{}'", currentInstructor.id(), course.getName());
 
         if (course.getInstructors() == null) {
             log.debug("createCourse: instructors list is null → creating new list");
             course.setInstructors(new ArrayList<>());
         }
-        if (!course.getInstructors().contains(currentInstructor)) {
-            log.debug("createCourse: adding instructorId={} to course", currentInstructor.getId());
-            course.getInstructors().add(currentInstructor);
+        if (!isInstructorOf(course, currentInstructor.id())) {
+            log.debug("createCourse: adding instructorId={} to course", currentInstructor.id());
+            course.getInstructors().add(userRepository.getReferenceById(currentInstructor.id()));
         }
         Course saved = courseRepository.save(course);
+        courseCatalog.indexed(saved);
+        readYourWrites.recordWrite();
         log.debug("createCourse: saved courseId={}", saved.getId());
         return saved;
     }
@@ -96,6 +135,8 @@ public class InstructorServiceImpl implements InstructorService {
         existing.setName(course.getName());
         existing.setDescription(course.getDescription());
         Course saved = courseRepository.save(existing);
+        courseCatalog.indexed(saved);
+        readYourWrites.recordWrite();
         log.debug("updateCourse: updated courseId={}", saved.getId());
         return saved;
     }
@@ -108,15 +149,18 @@ public class InstructorServiceImpl implements InstructorService {
             throw new RuntimeException("Course not found with id: " + courseId);
         }
         courseRepository.deleteById(courseId);
+        courseCatalog.removed(courseId);
+        courseWaitlist.removeCourse(courseId);
+        readYourWrites.recordWrite();
         log.debug("deleteCourse: deleted courseId={}", courseId);
     }
 
     @Override
     public Exam createExam(Exam exam) {
-        User currentInstructor = getCurrentInstructor();
+        UserSnapshot currentInstructor = getCurrentInstructor();
         Long courseId = exam.getCourseId();
         log.debug("createExam: instructorId={} courseId={} title='{}'",
-                currentInstructor.getId(), courseId, exam.getTitle());
+                currentInstructor.id(), courseId, exam.getTitle());
 
         if (courseId == null) {
             log.debug("createExam: courseId is null");
@@ -128,9 +172,9 @@ public class InstructorServiceImpl implements InstructorService {
                     return new ResourceNotFoundException("Course not found with id: " + courseId);
                 });
 
-        if (course.getInstructors() == null || !course.getInstructors().contains(currentInstructor)) {
+        if (!isInstructorOf(course, currentInstructor.id())) {
             log.debug("createExam: instructorId={} not authorized for courseId={}",
-                    currentInstructor.getId(), courseId);
+                    currentInstructor.id(), courseId);
             throw new RuntimeException("You are not authorized for this course");
         }
 
@@ -149,6 +193,7 @@ public class InstructorServiceImpl implements InstructorService {
             );
         }
         Exam saved = examRepository.save(exam);
+        readYourWrites.recordWrite();
         log.debug("createExam: saved examId={} courseId={}", saved.getId(), courseId);
         return saved;
     }
@@ -169,6 +214,8 @@ public class InstructorServiceImpl implements InstructorService {
         existingExam.setNumberOfQuestions(exam.getNumberOfQuestions());
         existingExam.setPassingScore(exam.getPassingScore());
         Exam saved = examRepository.save(existingExam);
+        examCacheInvalidator.evict(examId);
+        readYourWrites.recordWrite();
         log.debug("updateExam: updated examId={}", saved.getId());
         return saved;
     }
@@ -183,6 +230,8 @@ public class InstructorServiceImpl implements InstructorService {
                 });
         exam.setPublished(true);
         Exam saved = examRepository.save(exam);
+        examCacheInvalidator.evict(examId);
+        readYourWrites.recordWrite();
         log.debug("publishExam: published examId={}", saved.getId());
         return saved;
     }
@@ -197,11 +246,14 @@ public class InstructorServiceImpl implements InstructorService {
                 });
         exam.setPublished(false);
         Exam saved = examRepository.save(exam);
+        examCacheInvalidator.evict(examId);
+        readYourWrites.recordWrite();
         log.debug("unpublishExam: unpublished examId={}", saved.getId());
         return saved;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ExamResult> getExamResults(Long examId) {
         log.debug("getExamResults: examId={}", examId);
         if (!examRepository.existsById(examId)) {
@@ -213,11 +265,57 @@ public class InstructorServiceImpl implements InstructorService {
         return results;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<ExamResultRow> getExamResultsPage(Long examId, String after, int limit) {
+        if (!examRepository.existsById(examId)) {
+            throw new ResourceNotFoundException("Exam not found with id: " + examId);
+        }
+        long afterId;
+        try {
+            afterId = after == null || after.isBlank() ? 0 : Long.parseLong(after);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + after);
+        }
+        int size = KeysetPage.size(limit);
+        List<ExamResultRow> rows = examResultRepository.findRowsAfter(examId, afterId, PageRequest.ofSize(size + 1));
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        return new KeysetPage<>(rows.subList(0, size), String.valueOf(rows.get(size - 1).getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ScoreDistribution getScoreDistribution(Long examId, List<Double> percentiles) {
+        if (!examRepository.existsById(examId)) {
+            throw new ResourceNotFoundException("Exam not found with id: " + examId);
+        }
+        ScoreSketch sketch = scoreSketches.snapshot(examId);
+        Map<String, Integer> values = new LinkedHashMap<>();
+        for (Double q : percentiles) {
+            String label = "p" + BigDecimal.valueOf(q * 100).stripTrailingZeros().toPlainString();
+            values.put(label, sketch.quantile(q));
+        }
+        return new ScoreDistribution(examId, sketch.count(), sketch.min(), sketch.max(), sketch.mean(), values);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportExamResults(Long examId, Consumer<ExamResultRow> sink) {
+        if (!examRepository.existsById(examId)) {
+            throw new ResourceNotFoundException("Exam not found with id: " + examId);
+        }
+        try (Stream<ExamResultRow> rows = examResultRepository.streamRows(examId)) {
+            rows.forEach(sink);
+        }
+    }
+
     @Override
     public List<Course> getCoursesByInstructor() {
-        User currentInstructor = getCurrentInstructor();
-        log.debug("getCoursesByInstructor: instructorId={}", currentInstructor.getId());
-        List<Course> courses = courseRepository.findByInstructorsContaining(currentInstructor);
+        UserSnapshot currentInstructor = getCurrentInstructor();
+        log.debug("getCoursesByInstructor: instructorId={}", currentInstructor.id());
+        List<Course> courses = courseRepository.findByInstructorsContaining(userRepository.getReferenceById(currentInstructor.id()));
         log.debug("getCoursesByInstructor: found {} courses", courses.size());
         return courses;
     }
@@ -230,10 +328,10 @@ public class InstructorServiceImpl implements InstructorService {
                     log.debug("getEnrolledStudents: course not found courseId={}", courseId);
                     return new ResourceNotFoundException("Course not found with id: " + courseId);
                 });
-        User currentInstructor = getCurrentInstructor();
-        if (course.getInstructors() == null || !course.getInstructors().contains(currentInstructor)) {
+        UserSnapshot currentInstructor = getCurrentInstructor();
+        if (!isInstructorOf(course, currentInstructor.id())) {
             log.debug("getEnrolledStudents: not authorized instructorId={} courseId={}",
-                    currentInstructor.getId(), courseId);
+                    currentInstructor.id(), courseId);
             throw new RuntimeException("You are not authorized to view students for this course");
         }
         List<User> students = course.getEnrolledStudents();
@@ -241,31 +339,48 @@ public class InstructorServiceImpl implements InstructorService {
         return students;
     }
 
-    /** List all exams for the current instructor */
+    /** One page of the current instructor's exams with their submission statistics */
     @Override
-    public List<Exam> getAllExamsForInstructor() {
-        User currentInstructor = getCurrentInstructor();
-        log.debug("getAllExamsForInstructor: instructorId={}", currentInstructor.getId());
-        List<Course> instructorCourses = courseRepository.findByInstructorsContaining(currentInstructor);
-        log.debug("getAllExamsForInstructor: courses count={}", instructorCourses.size());
-
-        List<Exam> allExams = new ArrayList<>();
-        for (Course course : instructorCourses) {
-            List<Exam> examsOfCourse = examRepository.findByCourse(course);
-            log.debug("getAllExamsForInstructor: courseId={} exams added={}",
-                    course.getId(), examsOfCourse.size());
-            allExams.addAll(examsOfCourse);
+    @Transactional(readOnly = true)
+    public KeysetPage<InstructorExamRow> getExamsForInstructor(Boolean published, String after, int limit) {
+        UserSnapshot currentInstructor = getCurrentInstructor();
+        long beforeId;
+        try {
+            beforeId = after == null || after.isBlank() ? Long.MAX_VALUE : Long.parseLong(after);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + after);
+        }
+        int size = KeysetPage.size(limit);
+        List<InstructorExamRow> rows = examRepository.findForInstructorBefore(currentInstructor.id(),
+                published == null, Boolean.TRUE.equals(published), beforeId, PageRequest.ofSize(size + 1));
+        log.debug("getExamsForInstructor: instructorId={} published={} rows={}",
+                currentInstructor.id(), published, rows.size());
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        return new KeysetPage<>(rows.subList(0, size), String.valueOf(rows.get(size - 1).getId()));
+    }
+
+    /** Full exam with its questions, for editing */
+    @Override
+    @Transactional(readOnly = true)
+    public Exam getExam(Long examId) {
+        UserSnapshot currentInstructor = getCurrentInstructor();
+        Exam exam = examRepository.findById(examId)
+                .orElseThrow(() -> new ResourceNotFoundException("Exam not found with id: " + examId));
+        if (!isInstructorOf(exam.getCourse(), currentInstructor.id())) {
+            throw new RuntimeException("You are not authorized to view this exam");
         }
-        log.debug("getAllExamsForInstructor: total exams={}", allExams.size());
-        return allExams;
+        Hibernate.initialize(exam.getQuestions());
+        return exam;
     }
 
 
     @Override
     public Exam updateExamWithQuestions(Long examId, ExamWithQuestionsDTO dto) {
-        User currentInstructor = getCurrentInstructor();
+        UserSnapshot currentInstructor = getCurrentInstructor();
         log.debug("updateExamWithQuestions: instructorId={} examId={}",
-                currentInstructor.getId(), examId);
+                currentInstructor.id(), examId);
 
         // 1️⃣ Find exam
         Exam exam = examRepository.findById(examId)
@@ -276,9 +391,9 @@ public class InstructorServiceImpl implements InstructorService {
 
         // 2️⃣ Check instructor owns this course
         Course course = exam.getCourse();
-        if (course.getInstructors() == null || !course.getInstructors().contains(currentInstructor)) {
+        if (!isInstructorOf(course, currentInstructor.id())) {
             log.debug("updateExamWithQuestions: not authorized instructorId={} courseId={}",
-                    currentInstructor.getId(), course.getId());
+                    currentInstructor.id(), course.getId());
             throw new RuntimeException("You are not authorized to update this exam");
         }
 
@@ -331,6 +446,8 @@ public class InstructorServiceImpl implements InstructorService {
 
         // 6️⃣ Save exam (cascade updates + inserts questions)
         Exam saved = examRepository.save(exam);
+        examCacheInvalidator.evict(examId);
+        readYourWrites.recordWrite();
         log.debug("updateExamWithQuestions: saved examId={} questionsCount={}",
                 saved.getId(),
                 (saved.getQuestions() != null ? saved.getQuestions().size() : 0));
@@ -0,0 +1,182 @@
+package com.examplatform.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Sorted set with positional access: a treap whose nodes carry their subtree size, so
+ * insert, remove, rank-of and element-at-rank are all O(log n) expected. Elements that
+ * compare equal are the same element; callers break ties in the comparator.
+ *
+ * Not thread-safe; callers guard each tree with their own lock.
+ */
+public final class OrderStatisticTree<E> {
+
+    private static final class Node<E> {
+        final E value;
+        final int priority;
+        Node<E> left, right;
+        int size = 1;
+
+        Node(E value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+    }
+
+    private final Comparator<? super E> comparator;
+    private final SplittableRandom random = new SplittableRandom();
+    private Node<E> root;
+
+    public OrderStatisticTree(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /** @return false if an equal element is already present */
+    public boolean add(E value) {
+        if (contains(value)) {
+            return false;
+        }
+        Split<E> parts = split(root, value);
+        root = merge(merge(parts.less, new Node<>(value, random.nextInt())), parts.rest);
+        return true;
+    }
+
+    /** @return false if no equal element was present */
+    public boolean remove(E value) {
+        int before = size();
+        root = remove(root, value);
+        return size() != before;
+    }
+
+    public boolean contains(E value) {
+        Node<E> node = root;
+        while (node != null) {
+            int c = comparator.compare(value, node.value);
+            if (c == 0) return true;
+            node = c < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+    /** Number of elements ordered strictly before {@code value}; it need not be present. */
+    public int rank(E value) {
+        int rank = 0;
+        Node<E> node = root;
+        while (node != null) {
+            int c = comparator.compare(value, node.value);
+            if (c <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    /** The element at zero-based position {@code index} in sort order. */
+    public E get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        Node<E> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.value;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /** Up to {@code n} smallest elements in order, visiting only those nodes and their ancestors. */
+    public List<E> first(int n) {
+        List<E> out = new ArrayList<>(Math.min(Math.max(n, 0), size()));
+        collect(root, n, out);
+        return out;
+    }
+
+    private void collect(Node<E> node, int n, List<E> out) {
+        if (node == null || out.size() >= n) return;
+        collect(node.left, n, out);
+        if (out.size() < n) {
+            out.add(node.value);
+            collect(node.right, n, out);
+        }
+    }
+
+    /** Result of {@link #split}: elements < value, elements >= value. */
+    private static final class Split<E> {
+        Node<E> less, rest;
+    }
+
+    /** Splits into (elements < value, elements >= value). */
+    private Split<E> split(Node<E> node, E value) {
+        if (node == null) {
+            return new Split<>();
+        }
+        if (comparator.compare(node.value, value) < 0) {
+            Split<E> parts = split(node.right, value);
+            node.right = parts.less;
+            update(node);
+            parts.less = node;
+            return parts;
+        }
+        Split<E> parts = split(node.left, value);
+        node.left = parts.rest;
+        update(node);
+        parts.rest = node;
+        return parts;
+    }
+
+    private Node<E> merge(Node<E> a, Node<E> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private Node<E> remove(Node<E> node, E value) {
+        if (node == null) return null;
+        int c = comparator.compare(value, node.value);
+        if (c == 0) {
+            return merge(node.left, node.right);
+        }
+        if (c < 0) {
+            node.left = remove(node.left, value);
+        } else {
+            node.right = remove(node.right, value);
+        }
+        update(node);
+        return node;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node<?> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+}
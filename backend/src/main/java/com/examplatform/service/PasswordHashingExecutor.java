@@ -0,0 +1,128 @@
+package com.examplatform.service;
+
+import com.examplatform.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt on a small fixed pool with a bounded queue instead of on request threads.
+ * A login storm queues here while Tomcat threads stay free for exam traffic.
+ *
+ * The bound is meant to bound latency, not memory: unless set explicitly, the queue holds
+ * what the pool can hash within {@code max-wait-ms}, from one BCrypt timed at startup.
+ * Checks beyond that get 429 straight away, and a check that still waited longer than
+ * {@code max-wait-ms} (a slower host, a GC pause) is answered with 429 without hashing,
+ * since its client is likely to have given up. Retry-After defaults to the time a full
+ * queue takes to drain.
+ */
+@Slf4j
+@Service
+public class PasswordHashingExecutor {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final long maxWaitNanos;
+    private final Timer queueWait;
+    private final Timer hashTime;
+    private final Counter rejected;
+
+    @Autowired
+    public PasswordHashingExecutor(PasswordEncoder passwordEncoder,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${auth.hashing.threads:0}") int threads,
+                                   @Value("${auth.hashing.queue-capacity:0}") int queueCapacity,
+                                   @Value("${auth.hashing.max-wait-ms:5000}") long maxWaitMs,
+                                   @Value("${auth.hashing.retry-after-seconds:0}") long retryAfterSeconds) {
+        this.passwordEncoder = passwordEncoder;
+        // A full queue takes about max-wait-ms to drain; asking clients back sooner only adds 429s
+        this.retryAfterSeconds = retryAfterSeconds > 0 ? retryAfterSeconds : Math.max(1, (maxWaitMs + 999) / 1000);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        if (queueCapacity <= 0) {
+            long hashMs = Math.max(1, timeOneHash(passwordEncoder));
+            queueCapacity = (int) Math.max(poolSize, Math.min(10_000, poolSize * maxWaitMs / hashMs));
+        }
+        AtomicInteger seq = new AtomicInteger();
+        BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS, queue, r -> {
+            Thread t = new Thread(r, "password-hashing-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.hashing.queue.depth", queue, BlockingQueue::size)
+                .description("Password checks waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("auth.hashing.queue.wait")
+                .description("Time a password check waited for a hashing thread")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.hashTime = Timer.builder("auth.hashing.duration")
+                .description("Time spent in BCrypt per password check")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.hashing.rejected")
+                .description("Password checks rejected because the queue was full or they waited too long")
+                .register(meterRegistry);
+        log.info("Password hashing pool: {} threads, queue {}, max wait {} ms", poolSize, queueCapacity, maxWaitMs);
+    }
+
+    /** Fastest of a few runs: the first ones are interpreted and would undersize the queue. */
+    private static long timeOneHash(PasswordEncoder passwordEncoder) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            passwordEncoder.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(best);
+    }
+
+    /** {@code passwordEncoder.matches} on the hashing pool. */
+    public CompletableFuture<Boolean> matches(String raw, String encoded) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long started = System.nanoTime();
+                queueWait.record(started - queuedAt, TimeUnit.NANOSECONDS);
+                if (started - queuedAt > maxWaitNanos) {
+                    rejected.increment();
+                    throw tooMany();
+                }
+                boolean ok = raw != null && encoded != null && passwordEncoder.matches(raw, encoded);
+                hashTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                return ok;
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw tooMany();
+        }
+    }
+
+    private TooManyRequestsException tooMany() {
+        return new TooManyRequestsException("Too many sign-ins right now, please retry", retryAfterSeconds);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
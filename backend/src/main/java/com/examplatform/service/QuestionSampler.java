@@ -0,0 +1,32 @@
+package com.examplatform.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded partial Fisher–Yates shuffle. Swaps are recorded in a sparse map instead of
+ * a copy of the pool, so drawing k of n ids costs O(k) time and memory and the same
+ * seed always yields the same questions in the same order.
+ */
+public final class QuestionSampler {
+
+    private QuestionSampler() {
+    }
+
+    public static long[] sample(long[] pool, int k, long seed) {
+        int n = pool.length;
+        int count = Math.max(0, Math.min(k, n));
+        SplittableRandom random = new SplittableRandom(seed);
+        Map<Integer, Integer> displaced = new HashMap<>(count * 2);
+        long[] drawn = new long[count];
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(n - i);
+            int atJ = displaced.getOrDefault(j, j);
+            int atI = displaced.getOrDefault(i, i);
+            drawn[i] = pool[atJ];
+            displaced.put(j, atI);
+        }
+        return drawn;
+    }
+}
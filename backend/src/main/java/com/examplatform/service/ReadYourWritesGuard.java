@@ -0,0 +1,72 @@
+package com.examplatform.service;
+
+import com.examplatform.security.JwtPrincipal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers users who just wrote something they will want to read back, so their
+ * read-only transactions stay on the primary until the replica has had time to catch
+ * up. The window should comfortably exceed normal replication lag.
+ */
+@Service
+public class ReadYourWritesGuard {
+
+    private static final int PRUNE_ABOVE = 10_000;
+
+    private final Map<Long, Long> recentWriters = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    @Autowired
+    public ReadYourWritesGuard(@Value("${spring.datasource.replica.read-your-writes-ms:5000}") long windowMs) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+    }
+
+    public void recordWrite(Long userId) {
+        long now = System.nanoTime();
+        recentWriters.put(userId, now + windowNanos);
+        if (recentWriters.size() > PRUNE_ABOVE) {
+            recentWriters.values().removeIf(until -> until - now < 0);
+        }
+    }
+
+    /** Record a write by the user behind the current request, if the request has one. */
+    public void recordWrite() {
+        Long userId = currentUserId();
+        if (userId != null) {
+            recordWrite(userId);
+        }
+    }
+
+    /** True if the user behind the current request wrote within the window. */
+    public boolean mustReadPrimary() {
+        if (recentWriters.isEmpty()) {
+            return false;
+        }
+        Long userId = currentUserId();
+        if (userId == null) {
+            return false;
+        }
+        Long until = recentWriters.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() < 0) {
+            recentWriters.remove(userId, until);
+            return false;
+        }
+        return true;
+    }
+
+    private static Long currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof JwtPrincipal principal ? principal.userId() : null;
+    }
+}
@@ -0,0 +1,122 @@
+package com.examplatform.service;
+
+import com.examplatform.model.RefreshToken;
+import com.examplatform.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Issues and rotates refresh tokens, so an exam session can outlive the access token
+ * without another BCrypt login. Presenting an already used token is treated as theft
+ * and revokes every refresh token of that user. Rotation extends a token's life but not
+ * the session's: every token of a login expires by {@code refresh-session-max-hours}
+ * after that login, however often it is refreshed.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    /** A freshly issued token; {@code token} is only ever returned to the client. */
+    public record Issued(Long userId, String token, Instant expiresAt) {}
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SecureRandom random = new SecureRandom();
+    private final Duration ttl;
+    private final Duration sessionMax;
+
+    @Autowired
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${auth.refresh-token-ttl-hours:12}") long ttlHours,
+                               @Value("${auth.refresh-session-max-hours:24}") long sessionMaxHours) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.sessionMax = Duration.ofHours(sessionMaxHours);
+    }
+
+    /** First refresh token of a new login session. */
+    public Issued issue(Long userId) {
+        return issue(userId, Instant.now().plus(sessionMax));
+    }
+
+    private Issued issue(Long userId, Instant sessionExpiresAt) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Instant now = Instant.now();
+
+        RefreshToken row = new RefreshToken();
+        row.setTokenHash(hash(token));
+        row.setUserId(userId);
+        row.setCreatedAt(now);
+        row.setExpiresAt(min(now.plus(ttl), sessionExpiresAt));
+        row.setSessionExpiresAt(sessionExpiresAt);
+        refreshTokenRepository.save(row);
+        return new Issued(userId, token, row.getExpiresAt());
+    }
+
+    /**
+     * Spend {@code token} and issue its replacement.
+     *
+     * @throws RuntimeException if the token is unknown, expired or already used
+     */
+    public Issued rotate(String token) {
+        if (token == null || token.isBlank()) {
+            throw new RuntimeException("Refresh token is required");
+        }
+        Instant now = Instant.now();
+        RefreshToken row = refreshTokenRepository.findByTokenHash(hash(token))
+                .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+        if (row.getRevokedAt() != null || refreshTokenRepository.revoke(row.getId(), now) == 0) {
+            int revoked = refreshTokenRepository.revokeAllForUser(row.getUserId(), now);
+            log.warn("Refresh token {} of user {} was reused; revoked {} other tokens",
+                    row.getId(), row.getUserId(), revoked);
+            throw new RuntimeException("Refresh token already used");
+        }
+        Instant sessionExpiresAt = row.getSessionExpiresAt() != null
+                ? row.getSessionExpiresAt() : row.getCreatedAt().plus(sessionMax);
+        if (!now.isBefore(row.getExpiresAt()) || !now.isBefore(sessionExpiresAt)) {
+            throw new RuntimeException("Refresh token expired");
+        }
+        return issue(row.getUserId(), sessionExpiresAt);
+    }
+
+    /** Sign the user out everywhere, e.g. after a password change. */
+    public int revokeAll(Long userId) {
+        int revoked = refreshTokenRepository.revokeAllForUser(userId, Instant.now());
+        log.info("Revoked {} refresh tokens of user {}", revoked, userId);
+        return revoked;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.refresh-token-cleanup-ms:3600000}")
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.debug("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.examplatform.service;
+
+import com.examplatform.service.UserImportService.Format;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a user roster one line at a time, so an import only ever holds the current
+ * chunk in memory.
+ *
+ * CSV needs a header row naming the columns (email, password, firstName, lastName,
+ * role, courseIds; any order, case-insensitive). courseIds is a list separated by
+ * ';', '|' or spaces. NDJSON has one object per line with the same field names, where
+ * courseIds may also be a JSON array. A line that cannot be parsed comes back as an
+ * entry with {@code error} set instead of failing the whole file.
+ */
+final class RosterReader implements Iterator<RosterReader.Entry>, Closeable {
+
+    record Entry(int line, String email, String password, String firstName, String lastName,
+                 String role, List<Long> courseIds, String error) {
+
+        static Entry invalid(int line, String email, String error) {
+            return new Entry(line, email, null, null, null, null, List.of(), error);
+        }
+    }
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> columns;
+    private int lineNumber;
+    private Entry next;
+
+    RosterReader(InputStream in, Format format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = advance();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Entry next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Entry entry = next;
+        next = null;
+        return entry;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Entry advance() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.NDJSON) {
+                    return fromJson(line);
+                }
+                if (columns == null) {
+                    columns = header(line);
+                    continue;
+                }
+                return fromCsv(line);
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Map<String, Integer> header(String line) {
+        List<String> names = splitCsv(line);
+        if (names == null) {
+            throw new IllegalArgumentException("Malformed CSV header");
+        }
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            index.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!index.containsKey("email")) {
+            throw new IllegalArgumentException("CSV header must include an email column");
+        }
+        return index;
+    }
+
+    private Entry fromCsv(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields == null) {
+            return Entry.invalid(lineNumber, null, "Unterminated quoted field");
+        }
+        String email = column(fields, "email");
+        try {
+            return new Entry(lineNumber, email, column(fields, "password"),
+                    column(fields, "firstname"), column(fields, "lastname"),
+                    column(fields, "role"), courseIds(column(fields, "courseids")), null);
+        } catch (NumberFormatException e) {
+            return Entry.invalid(lineNumber, email, "Invalid course id: " + e.getMessage());
+        }
+    }
+
+    private Entry fromJson(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (IOException e) {
+            return Entry.invalid(lineNumber, null, "Malformed JSON");
+        }
+        if (!node.isObject()) {
+            return Entry.invalid(lineNumber, null, "Expected a JSON object");
+        }
+        String email = text(node, "email");
+        try {
+            List<Long> courseIds;
+            JsonNode courses = node.get("courseIds");
+            if (courses != null && courses.isArray()) {
+                courseIds = new ArrayList<>();
+                for (JsonNode id : courses) {
+                    courseIds.add(Long.valueOf(id.asText()));
+                }
+            } else {
+                courseIds = courseIds(text(node, "courseIds"));
+            }
+            return new Entry(lineNumber, email, text(node, "password"), text(node, "firstName"),
+                    text(node, "lastName"), text(node, "role"), courseIds, null);
+        } catch (NumberFormatException e) {
+            return Entry.invalid(lineNumber, email, "Invalid course id: " + e.getMessage());
+        }
+    }
+
+    private String column(List<String> fields, String name) {
+        Integer i = columns.get(name);
+        if (i == null || i >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(i).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        String text = value.asText().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static List<Long> courseIds(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>();
+        for (String part : value.trim().split("[;| ]+")) {
+            ids.add(Long.valueOf(part));
+        }
+        return ids;
+    }
+
+    /** RFC 4180 fields on a single line; returns null if a quote is left open. */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
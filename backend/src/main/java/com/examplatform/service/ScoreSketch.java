@@ -0,0 +1,167 @@
+package com.examplatform.service;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Distribution of integer exam scores as a count per score value.
+ *
+ * Exam scores are small non-negative integers bounded by the exam's total, so an
+ * exact histogram is both smaller and simpler than an approximate quantile sketch:
+ * memory is one long per possible score, two sketches merge by adding counts, and a
+ * percentile is a walk over at most totalScore + 1 buckets whatever the class size.
+ *
+ * The binary form is a version byte, the number of non-empty buckets, then one
+ * (gap from the previous non-empty score, count) pair per bucket, all as unsigned
+ * LEB128 varints; a typical exam fits in well under a hundred bytes.
+ */
+public final class ScoreSketch {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private long[] counts;
+    private long total;
+
+    public ScoreSketch() {
+        this(16);
+    }
+
+    private ScoreSketch(int buckets) {
+        this.counts = new long[Math.max(1, buckets)];
+    }
+
+    /** Count one score; negative scores are counted as 0. */
+    public synchronized void add(int score) {
+        add(score, 1);
+    }
+
+    synchronized void add(int score, long count) {
+        int bucket = Math.max(0, score);
+        if (bucket >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(bucket + 1, counts.length * 2));
+        }
+        counts[bucket] += count;
+        total += count;
+    }
+
+    public synchronized void merge(ScoreSketch other) {
+        long[] theirs;
+        synchronized (other) {
+            theirs = other.counts.clone();
+        }
+        for (int score = 0; score < theirs.length; score++) {
+            if (theirs[score] != 0) {
+                add(score, theirs[score]);
+            }
+        }
+    }
+
+    public synchronized long count() {
+        return total;
+    }
+
+    /** Lowest and highest score seen, or -1 if the sketch is empty. */
+    public synchronized int min() {
+        for (int score = 0; score < counts.length; score++) {
+            if (counts[score] != 0) return score;
+        }
+        return -1;
+    }
+
+    public synchronized int max() {
+        for (int score = counts.length - 1; score >= 0; score--) {
+            if (counts[score] != 0) return score;
+        }
+        return -1;
+    }
+
+    public synchronized double mean() {
+        if (total == 0) return 0;
+        double sum = 0;
+        for (int score = 0; score < counts.length; score++) {
+            sum += (double) score * counts[score];
+        }
+        return sum / total;
+    }
+
+    /**
+     * Nearest-rank percentile: the smallest score with at least {@code q} of the
+     * results at or below it. Returns -1 if the sketch is empty.
+     *
+     * @param q fraction in [0, 1]
+     */
+    public synchronized int quantile(double q) {
+        if (q < 0 || q > 1 || Double.isNaN(q)) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+        }
+        if (total == 0) return -1;
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int score = 0; score < counts.length; score++) {
+            seen += counts[score];
+            if (seen >= rank) return score;
+        }
+        return max();
+    }
+
+    public synchronized byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32);
+        out.write(FORMAT_VERSION);
+        int nonEmpty = 0;
+        for (long c : counts) {
+            if (c != 0) nonEmpty++;
+        }
+        writeVarint(out, nonEmpty);
+        int previous = 0;
+        for (int score = 0; score < counts.length; score++) {
+            if (counts[score] != 0) {
+                writeVarint(out, score - previous);
+                writeVarint(out, counts[score]);
+                previous = score;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /** @throws IllegalArgumentException if the bytes are not a sketch this version can read */
+    public static ScoreSketch fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0 || bytes[0] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unknown score sketch format");
+        }
+        int[] pos = {1};
+        long nonEmpty = readVarint(bytes, pos);
+        ScoreSketch sketch = new ScoreSketch();
+        long score = 0;
+        for (long i = 0; i < nonEmpty; i++) {
+            score += readVarint(bytes, pos);
+            if (score > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Corrupt score sketch");
+            }
+            sketch.add((int) score, readVarint(bytes, pos));
+        }
+        return sketch;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(byte[] bytes, int[] pos) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (pos[0] >= bytes.length) {
+                throw new IllegalArgumentException("Truncated score sketch");
+            }
+            byte b = bytes[pos[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Corrupt score sketch");
+    }
+}
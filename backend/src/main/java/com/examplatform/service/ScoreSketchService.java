@@ -0,0 +1,149 @@
+package com.examplatform.service;
+
+import com.examplatform.model.ExamScoreSketch;
+import com.examplatform.repository.ExamScoreSketchRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link ScoreSketch} per exam, kept in memory and updated as results are
+ * committed, so percentile queries never touch exam_result.
+ *
+ * Sketches are loaded before the application takes traffic. Their stored result_count
+ * is checked against a per-exam count of exam_result, and any exam that differs (or has
+ * no readable sketch) is rebuilt from exam_result with one grouped query. Changed
+ * sketches are written back on a schedule and at shutdown. Like {@link DraftStore},
+ * this assumes a single application node.
+ */
+@Slf4j
+@Service
+public class ScoreSketchService {
+
+    private final Map<Long, ScoreSketch> sketches = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final ExamScoreSketchRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ScoreSketchService(ExamScoreSketchRepository repository, JdbcTemplate jdbcTemplate,
+                              MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+
+        Gauge.builder("exam.sketches.size", sketches, Map::size)
+                .description("Exams with an in-memory score sketch")
+                .register(meterRegistry);
+        Gauge.builder("exam.sketches.dirty", dirty, Set::size)
+                .description("Score sketches waiting to be written")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void load() {
+        Map<Long, Long> stored = new HashMap<>();
+        for (ExamScoreSketch row : repository.findAll()) {
+            try {
+                sketches.put(row.getExamId(), ScoreSketch.fromBytes(row.getData()));
+                stored.put(row.getExamId(), row.getResultCount());
+            } catch (IllegalArgumentException e) {
+                log.warn("Rebuilding unreadable score sketch for exam {}", row.getExamId());
+            }
+        }
+        // A sketch written before a crash, or before results were deleted, no longer
+        // matches exam_result; so does a missing or unreadable one (stored count absent)
+        Set<Long> stale = new HashSet<>();
+        Map<Long, Long> actual = new HashMap<>();
+        jdbcTemplate.query("select exam_id, count(*) from exam_result group by exam_id", rs -> {
+            actual.put(rs.getLong(1), rs.getLong(2));
+        });
+        actual.forEach((examId, count) -> {
+            if (!count.equals(stored.get(examId))) {
+                stale.add(examId);
+            }
+        });
+        stored.forEach((examId, count) -> {
+            if (count != 0 && !actual.containsKey(examId)) {
+                stale.add(examId);
+            }
+        });
+        if (!stale.isEmpty()) {
+            for (Long examId : stale) {
+                sketches.put(examId, new ScoreSketch());
+                dirty.add(examId);
+            }
+            jdbcTemplate.query("select exam_id, score, count(*) from exam_result group by exam_id, score", rs -> {
+                long examId = rs.getLong(1);
+                if (stale.contains(examId)) {
+                    sketches.get(examId).add(rs.getInt(2), rs.getLong(3));
+                }
+            });
+        }
+        log.info("Score sketches: {} loaded, {} rebuilt from exam_result", stored.size(), stale.size());
+    }
+
+    /** Count a result that has been committed. */
+    public void record(Long examId, int score) {
+        sketches.computeIfAbsent(examId, id -> new ScoreSketch()).add(score);
+        dirty.add(examId);
+    }
+
+    /** A copy of the exam's sketch; empty if it has no results. */
+    public ScoreSketch snapshot(Long examId) {
+        ScoreSketch copy = new ScoreSketch();
+        ScoreSketch live = sketches.get(examId);
+        if (live != null) {
+            copy.merge(live);
+        }
+        return copy;
+    }
+
+    @Scheduled(fixedDelayString = "${exam.sketches.flush-interval-ms:60000}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(dirty.size());
+        for (Long examId : dirty) {
+            dirty.remove(examId); // before serializing, so a concurrent record re-marks it
+            ScoreSketch sketch = sketches.get(examId);
+            if (sketch != null) {
+                byte[] data = sketch.toBytes();
+                long count = sketch.count();
+                rows.add(new Object[]{examId, data, count, now, data, count, now});
+            }
+        }
+        try {
+            jdbcTemplate.batchUpdate("""
+                    insert into exam_score_sketch (exam_id, data, result_count, updated_at) values (?, ?, ?, ?)
+                    on duplicate key update data = ?, result_count = ?, updated_at = ?
+                    """, rows);
+            log.debug("Wrote {} score sketches", rows.size());
+        } catch (RuntimeException e) {
+            rows.forEach(row -> dirty.add((Long) row[0]));
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,72 @@
+package com.examplatform.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded (student, exam) -> int map split into independently locked LRU stripes, so
+ * concurrent submissions for different students rarely contend on the same lock.
+ */
+final class StripedCounterCache {
+
+    static final int MISSING = -1;
+
+    private record Key(long studentId, long examId) {}
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    StripedCounterCache(int stripeCount, int maxEntries) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[size];
+        this.mask = size - 1;
+        int perStripe = Math.max(1, maxEntries / size);
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    int get(long studentId, long examId) {
+        Key key = new Key(studentId, examId);
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Integer value = stripe.get(key);
+            return value == null ? MISSING : value;
+        }
+    }
+
+    void put(long studentId, long examId, int value) {
+        Key key = new Key(studentId, examId);
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.put(key, value);
+        }
+    }
+
+    void remove(long studentId, long examId) {
+        Key key = new Key(studentId, examId);
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.remove(key);
+        }
+    }
+
+    private Stripe stripeFor(Key key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    private static final class Stripe extends LinkedHashMap<Key, Integer> {
+        private final int capacity;
+
+        Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Integer> eldest) {
+            return size() > capacity;
+        }
+    }
+}
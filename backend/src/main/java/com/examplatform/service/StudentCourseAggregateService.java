@@ -0,0 +1,117 @@
+package com.examplatform.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains student_course_aggregate, the per (student, course) running totals behind
+ * the GPA reports.
+ *
+ * {@link #apply} is called from the transaction that inserts the exam results, so the
+ * totals commit or roll back with them. {@link #rebuild} recomputes the table from
+ * exam_result; it runs once on startup when the table is still empty and can be
+ * triggered by an admin after a manual data fix.
+ */
+@Slf4j
+@Service
+public class StudentCourseAggregateService {
+
+    /** One exam result's contribution. */
+    public record Delta(long studentId, long courseId, int score, int totalScore) {}
+
+    private record Key(long studentId, long courseId) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key o) {
+            int c = Long.compare(studentId, o.studentId);
+            return c != 0 ? c : Long.compare(courseId, o.courseId);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean backfillOnStartup;
+
+    @Autowired
+    public StudentCourseAggregateService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                         @Value("${analytics.gpa.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    /**
+     * Add results to the running totals. Must run inside the transaction that stores
+     * the results. Exams with no total score are left out, as the GPA has always done.
+     */
+    public void apply(Collection<Delta> deltas) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Aggregates must be updated in the result's transaction");
+        }
+        // Merge per key, in key order so concurrent writers lock rows in the same order.
+        Map<Key, long[]> merged = new TreeMap<>();
+        for (Delta d : deltas) {
+            if (d.totalScore() <= 0) {
+                continue;
+            }
+            long[] sums = merged.computeIfAbsent(new Key(d.studentId(), d.courseId()), k -> new long[3]);
+            sums[0] += d.score();
+            sums[1] += d.totalScore();
+            sums[2]++;
+        }
+        if (merged.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(merged.size());
+        merged.forEach((key, sums) -> rows.add(new Object[]{
+                key.studentId(), key.courseId(), sums[0], sums[1], sums[2], sums[0], sums[1], sums[2]}));
+        jdbcTemplate.batchUpdate("""
+                insert into student_course_aggregate (student_id, course_id, score_sum, total_score_sum, result_count)
+                values (?, ?, ?, ?, ?)
+                on duplicate key update score_sum = score_sum + ?, total_score_sum = total_score_sum + ?,
+                    result_count = result_count + ?
+                """, rows);
+    }
+
+    /** Recompute every row from exam_result; returns the number of rows written. */
+    public int rebuild() {
+        Integer written = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("delete from student_course_aggregate");
+            return jdbcTemplate.update("""
+                    insert into student_course_aggregate (student_id, course_id, score_sum, total_score_sum, result_count)
+                    select er.student_id, e.course_id, sum(er.score), sum(e.total_score), count(*)
+                    from exam_result er join exam e on e.id = er.exam_id
+                    where e.total_score > 0
+                    group by er.student_id, e.course_id
+                    """);
+        });
+        log.info("Rebuilt student_course_aggregate: {} rows", written);
+        return written != null ? written : 0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void backfillIfEmpty() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        boolean empty = jdbcTemplate.queryForList("select 1 from student_course_aggregate limit 1").isEmpty();
+        boolean hasResults = !jdbcTemplate.queryForList("select 1 from exam_result limit 1").isEmpty();
+        if (empty && hasResults) {
+            log.info("student_course_aggregate is empty, backfilling from exam_result");
+            rebuild();
+        }
+    }
+}
@@ -1,17 +1,33 @@
 package com.examplatform.service;
 
+import com.examplatform.dto.EnrollmentStatus;
+import com.examplatform.dto.ExamPayload;
+import com.examplatform.dto.KeysetPage;
+import com.examplatform.dto.LeaderboardEntry;
+import com.examplatform.dto.LeaderboardRank;
+import com.examplatform.dto.SubmissionReceipt;
+import com.examplatform.dto.SubmitExamRequest;
 import com.examplatform.model.Course;
 import com.examplatform.model.Exam;
 import com.examplatform.model.ExamResult;
+import com.examplatform.projection.CourseCardRow;
+import com.examplatform.projection.StudentExamRow;
 
 import java.util.List;
 
 public interface StudentService {
     List<Course> getEnrolledCourses();
-    Course enrollInCourse(Long courseId);
-    List<Exam> getAvailableExams();
+    EnrollmentStatus enrollInCourse(Long courseId);
+    EnrollmentStatus getEnrollmentStatus(Long courseId);
+    void leaveCourse(Long courseId);
+    List<StudentExamRow> getAvailableExams();
     Exam getExamDetails(Long examId);
-    String submitExam(Long examId, List<String> answers, List<Long> questionIds);
+    ExamPayload startExam(Long examId);
+    SubmissionReceipt submitExam(Long examId, List<String> answers, List<Long> questionIds);
+    void saveDraft(Long examId, List<String> answers, List<Long> questionIds);
+    SubmitExamRequest getDraft(Long examId);
     List<ExamResult> getResults();
-    List<Course> getAvailableCourses();
+    KeysetPage<CourseCardRow> getCourseCatalog(String query, String after, int limit);
+    LeaderboardRank getRank(Long examId);
+    List<LeaderboardEntry> getLeaderboard(Long examId, int limit);
 }
@@ -1,74 +1,160 @@
 package com.examplatform.service;
 
+import com.examplatform.dto.EnrollmentStatus;
+import com.examplatform.dto.ExamPayload;
+import com.examplatform.dto.KeysetPage;
+import com.examplatform.dto.LeaderboardEntry;
+import com.examplatform.dto.LeaderboardRank;
+import com.examplatform.dto.SubmissionReceipt;
+import com.examplatform.dto.SubmitExamRequest;
 import com.examplatform.exception.ResourceNotFoundException;
+import com.examplatform.exception.TooManyRequestsException;
 import com.examplatform.model.*;
+import com.examplatform.projection.CourseCardRow;
+import com.examplatform.projection.StudentExamRow;
 import com.examplatform.repository.*;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
 @Slf4j
 public class StudentServiceImpl implements StudentService {
 
-    private final UserRepository userRepository;
+    private static final int MAX_LEADERBOARD_SIZE = 100;
+
     private final CourseRepository courseRepository;
     private final ExamRepository examRepository;
-    private final QuestionRepository questionRepository;
     private final ExamResultRepository examResultRepository;
+    private final SubmissionPipeline submissionPipeline;
+    private final AnswerKeyCache answerKeyCache;
+    private final AttemptLedgerService attemptLedger;
+    private final ExamAttemptService examAttemptService;
+    private final DraftStore draftStore;
+    private final ExamPayloadCache examPayloadCache;
+    private final CurrentUserService currentUserService;
+    private final ExamLeaderboardService leaderboards;
+    private final ReadYourWritesGuard readYourWrites;
+    private final CourseCatalogService courseCatalog;
+    private final CourseSeatService courseSeats;
+    private final CourseWaitlistService courseWaitlist;
 
     @Autowired
-    public StudentServiceImpl(UserRepository userRepository,
-                              CourseRepository courseRepository,
+    public StudentServiceImpl(CourseRepository courseRepository,
                               ExamRepository examRepository,
-                              QuestionRepository questionRepository,
-                              ExamResultRepository examResultRepository) {
-        this.userRepository = userRepository;
+                              ExamResultRepository examResultRepository,
+                              SubmissionPipeline submissionPipeline,
+                              AnswerKeyCache answerKeyCache,
+                              AttemptLedgerService attemptLedger,
+                              ExamAttemptService examAttemptService,
+                              DraftStore draftStore,
+                              ExamPayloadCache examPayloadCache,
+                              CurrentUserService currentUserService,
+                              ExamLeaderboardService leaderboards,
+                              ReadYourWritesGuard readYourWrites,
+                              CourseCatalogService courseCatalog,
+                              CourseSeatService courseSeats,
+                              CourseWaitlistService courseWaitlist) {
         this.courseRepository = courseRepository;
         this.examRepository = examRepository;
-        this.questionRepository = questionRepository;
         this.examResultRepository = examResultRepository;
+        this.submissionPipeline = submissionPipeline;
+        this.answerKeyCache = answerKeyCache;
+        this.attemptLedger = attemptLedger;
+        this.examAttemptService = examAttemptService;
+        this.draftStore = draftStore;
+        this.examPayloadCache = examPayloadCache;
+        this.currentUserService = currentUserService;
+        this.leaderboards = leaderboards;
+        this.readYourWrites = readYourWrites;
+        this.courseCatalog = courseCatalog;
+        this.courseSeats = courseSeats;
+        this.courseWaitlist = courseWaitlist;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Course> getEnrolledCourses() {
-        User student = getCurrentStudent();
-        return courseRepository.findByEnrolledStudentsId(student.getId());
+        UserSnapshot student = getCurrentStudent();
+        return courseRepository.findByEnrolledStudentsId(student.id());
     }
 
     @Override
-    public Course enrollInCourse(Long courseId) {
-        User student = getCurrentStudent();
-        log.info("Fetching enrolled courses for student: {}", student.getEmail());
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResourceNotFoundException("Course not found"));
-        if (course.getEnrolledStudents().contains(student)) {
-            throw new RuntimeException("Already enrolled in course");
+    public EnrollmentStatus enrollInCourse(Long courseId) {
+        UserSnapshot student = getCurrentStudent();
+        // Retries while queued are answered from the in-memory index
+        Optional<CourseWaitlistService.Position> queued = courseWaitlist.position(courseId, student.id());
+        if (queued.isPresent()) {
+            return EnrollmentStatus.waitlisted(courseId, queued.get().position(), queued.get().size());
+        }
+        CourseSeatService.Outcome outcome;
+        if (courseWaitlist.hasWaiting(courseId)) {
+            // A seat freed while others wait goes to the head of the queue, not to whoever asks next
+            outcome = courseRepository.existsByIdAndEnrolledStudentsId(courseId, student.id())
+                    ? CourseSeatService.Outcome.ALREADY_ENROLLED : CourseSeatService.Outcome.FULL;
+        } else {
+            outcome = courseSeats.enroll(courseId, student.id());
         }
-        course.getEnrolledStudents().add(student);
-        log.debug("Student {} enrolled in ", student.getEmail());
-        return courseRepository.save(course);
+        return switch (outcome) {
+            case NO_COURSE -> throw new ResourceNotFoundException("Course not found");
+            case ALREADY_ENROLLED -> throw new RuntimeException("Already enrolled in course");
+            case FULL -> {
+                CourseWaitlistService.Position position = courseWaitlist.join(courseId, student.id());
+                log.info("Course {} is full; student {} waitlisted at {}", courseId, student.email(), position.position());
+                yield EnrollmentStatus.waitlisted(courseId, position.position(), position.size());
+            }
+            case ENROLLED -> {
+                log.info("Student {} enrolled in course {}", student.email(), courseId);
+                readYourWrites.recordWrite(student.id());
+                yield EnrollmentStatus.enrolled(courseId);
+            }
+        };
     }
 
     @Override
-    public List<Exam> getAvailableExams() {
+    public EnrollmentStatus getEnrollmentStatus(Long courseId) {
+        UserSnapshot student = getCurrentStudent();
+        Optional<CourseWaitlistService.Position> queued = courseWaitlist.position(courseId, student.id());
+        if (queued.isPresent()) {
+            return EnrollmentStatus.waitlisted(courseId, queued.get().position(), queued.get().size());
+        }
+        if (courseRepository.existsByIdAndEnrolledStudentsId(courseId, student.id())) {
+            return EnrollmentStatus.enrolled(courseId);
+        }
+        throw new ResourceNotFoundException("Not enrolled or waitlisted");
+    }
 
-        User student = getCurrentStudent();
-        log.info("Fetching available exams: {}", student.getEmail());
-        List<Course> courses = courseRepository.findByEnrolledStudentsId(student.getId());
-        return courses.stream()
-                .flatMap(course -> examRepository.findByCourseId(course.getId()).stream())
-                .filter(Exam::isPublished)
-                .collect(Collectors.toList());
+    @Override
+    public void leaveCourse(Long courseId) {
+        UserSnapshot student = getCurrentStudent();
+        if (courseWaitlist.leave(courseId, student.id())) {
+            log.info("Student {} left the waitlist of course {}", student.email(), courseId);
+            return;
+        }
+        if (!courseSeats.drop(courseId, student.id())) {
+            throw new ResourceNotFoundException("Not enrolled or waitlisted");
+        }
+        log.info("Student {} dropped course {}", student.email(), courseId);
+        readYourWrites.recordWrite(student.id());
+        courseWaitlist.requestPromotion(courseId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StudentExamRow> getAvailableExams() {
+        UserSnapshot student = getCurrentStudent();
+        log.info("Fetching available exams: {}", student.email());
+        return examRepository.findPublishedForStudent(student.id());
     }
 
     @Override
@@ -78,82 +164,176 @@ public class StudentServiceImpl implements StudentService {
     }
 
     @Override
-    @Transactional
-    public String submitExam(Long examId, List<String> answers, List<Long> questionIds) {
-        User student = getCurrentStudent();
-        log.info("Student {} submitting exam ID {}", student.getEmail(), examId);
-        Exam exam = examRepository.findById(examId)
-                .orElseThrow(() -> new ResourceNotFoundException("Exam not found"));
-        long attempts = examResultRepository.countByStudentIdAndExamId(student.getId(), exam.getId());
-        log.debug("Student {} has {} previous attempts for exam {}", student.getEmail(), attempts, examId);
-        if (attempts >= exam.getMaxAttempts()) {
-            throw new RuntimeException("Exam already submitted");
-        }
-        // Fetch only the randomized questions using the provided question IDs.
-        List<Question> questions = new ArrayList<>(questionRepository.findAllById(questionIds));
-        if (answers.size() != questions.size()) {
-            throw new RuntimeException("Number of answers does not match questions");
+    public ExamPayload startExam(Long examId) {
+        UserSnapshot student = getCurrentStudent();
+        AnswerKey key = answerKeyCache.get(examId);
+        if (!key.published()) {
+            throw new ResourceNotFoundException("Exam not found");
         }
-        // Calculate the count of correct answers
-        int correctCount = calculateScore(questions, answers);
-        // Each question is worth 5 points.
-//        int pointsEarned = correctCount * 5;
-        int pointsEarned = 0;
-        for (int i = 0; i < questions.size(); i++) {
-            Question q = questions.get(i);
-            String givenAnswer = answers.get(i);
-            if (q.getCorrectAnswer().equalsIgnoreCase(givenAnswer.trim())) {
-                pointsEarned += q.getMarks(); // ✅ use dynamic marks
-            }
+        ExamAttemptService.OpenAttempt attempt = examAttemptService.startOrResume(student.id(), key);
+        log.info("Student {} opened exam {} (attempt {})", student.email(), examId, attempt.id());
+        return examPayloadCache.forAttempt(examId, attempt.id(), attempt.questionIds());
+    }
+
+    // Not @Transactional: the result is written by SubmissionPipeline, and waiting for
+    // its batch must not pin a pooled connection.
+    @Override
+    public SubmissionReceipt submitExam(Long examId, List<String> answers, List<Long> questionIds) {
+        UserSnapshot student = getCurrentStudent();
+        log.info("Student {} submitting exam ID {}", student.email(), examId);
+        AnswerKey key = answerKeyCache.get(examId);
+        ExamAttemptService.OpenAttempt attempt = examAttemptService.requireOpen(student.id(), examId);
+        if (answers == null && questionIds == null) {
+            // Finalize from the last autosave (e.g. time ran out or the browser was closed)
+            DraftStore.Draft draft = draftStore.find(student.id(), examId, attempt.id());
+            answers = draft != null ? draft.answers() : List.of();
+            questionIds = draft != null ? draft.questionIds() : List.of();
         }
+        // Only questions issued to this attempt count; the client's list is not trusted.
+        requireIssued(attempt, answers, questionIds);
+        int pointsEarned = key.grade(questionIds, answers);
 
-        ExamResult result = new ExamResult();
-        result.setStudent(student);
-        result.setExam(exam);
-        result.setScore(pointsEarned);
         // Compare points earned to passingScore (which is stored in points as well)
-        result.setStatus(pointsEarned >= exam.getPassingScore() ? "PASS" : "FAIL");
-        examResultRepository.save(result);
-        return String.format("Exam submitted successfully! Score: %d/%d", pointsEarned, exam.getTotalScore());
+        String status = pointsEarned >= key.passingScore() ? "PASS" : "FAIL";
+        // Ledger first: if it refuses, the attempt is still open and nothing needs undoing
+        attemptLedger.acquire(student.id(), examId, key.maxAttempts());
+        try {
+            examAttemptService.close(attempt);
+        } catch (RuntimeException e) {
+            attemptLedger.release(student.id(), examId);
+            throw e;
+        }
+        // Truncated to the column's precision so the live leaderboard orders it as a reload would
+        Instant submittedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        SubmissionPipeline.Receipt receipt;
+        try {
+            receipt = submissionPipeline.submit(
+                    new SubmissionPipeline.PendingResult(student.id(), examId, key.courseId(),
+                            pointsEarned, key.totalScore(), status, submittedAt));
+        } catch (TooManyRequestsException | SubmissionPipeline.WriteFailedException e) {
+            attemptLedger.release(student.id(), examId);
+            examAttemptService.reopen(attempt);
+            throw e;
+        }
+        readYourWrites.recordWrite(student.id());
+        if (receipt.pending()) {
+            // Still queued: settle the attempt when the write finishes rather than guess now.
+            // The attempt stays closed meanwhile, so a retry cannot submit a second result.
+            receipt.ack().whenComplete((resultId, failure) -> {
+                if (failure != null) {
+                    log.warn("Pending result for student {} exam {} failed, reopening the attempt",
+                            student.email(), examId);
+                    attemptLedger.release(student.id(), examId);
+                    examAttemptService.reopen(attempt);
+                } else {
+                    draftStore.discard(student.id(), examId);
+                    log.debug("Stored result {} for student {} exam {}", resultId, student.email(), examId);
+                }
+            });
+            return new SubmissionReceipt(true, String.format(
+                    "Exam submitted! Score: %d/%d. It is still being recorded and will appear in your results shortly.",
+                    pointsEarned, key.totalScore()));
+        }
+        draftStore.discard(student.id(), examId);
+        log.debug("Stored result {} for student {} exam {}", receipt.resultId(), student.email(), examId);
+        return new SubmissionReceipt(false,
+                String.format("Exam submitted successfully! Score: %d/%d", pointsEarned, key.totalScore()));
+    }
+
+    @Override
+    public void saveDraft(Long examId, List<String> answers, List<Long> questionIds) {
+        UserSnapshot student = getCurrentStudent();
+        ExamAttemptService.OpenAttempt attempt = examAttemptService.requireOpen(student.id(), examId);
+        requireIssued(attempt, answers, questionIds);
+        draftStore.save(student.id(), examId, new DraftStore.Draft(attempt.id(),
+                new ArrayList<>(questionIds), new ArrayList<>(answers), Instant.now()));
+    }
+
+    @Override
+    public SubmitExamRequest getDraft(Long examId) {
+        UserSnapshot student = getCurrentStudent();
+        ExamAttemptService.OpenAttempt attempt = examAttemptService.requireOpen(student.id(), examId);
+        DraftStore.Draft draft = draftStore.find(student.id(), examId, attempt.id());
+        SubmitExamRequest response = new SubmitExamRequest();
+        response.setAnswers(draft != null ? draft.answers() : List.of());
+        response.setQuestionIds(draft != null ? draft.questionIds() : List.of());
+        return response;
     }
 
-    private int calculateScore(List<Question> questions, List<String> answers) {
-        int correctCount = 0;
-        for (int i = 0; i < questions.size(); i++){
-            if (questions.get(i).getCorrectAnswer().equalsIgnoreCase(answers.get(i))){
-                correctCount++;
+    private void requireIssued(ExamAttemptService.OpenAttempt attempt, List<String> answers, List<Long> questionIds) {
+        if (answers == null || questionIds == null || answers.size() != questionIds.size()) {
+            throw new RuntimeException("Number of answers does not match questions");
+        }
+        for (Long questionId : questionIds) {
+            if (!attempt.issued(questionId)) {
+                throw new RuntimeException("Question " + questionId + " was not issued in this attempt");
             }
         }
-        return correctCount;
     }
 
-
     @Override
+    @Transactional(readOnly = true)
     public List<ExamResult> getResults() {
-        User student = getCurrentStudent();
+        UserSnapshot student = getCurrentStudent();
         log.info("MDC userId in service: {}", MDC.get("userId"));
         log.info("Fetching results for student1111");
-        return examResultRepository.findByStudentId(student.getId());
+        return examResultRepository.findByStudentId(student.id());
     }
 
     @Override
-    public List<Course> getAvailableCourses() {
-        User student = getCurrentStudent();
-        List<Course> allCourses = courseRepository.findAll();
-        return allCourses.stream()
-                .filter(course -> !course.getEnrolledStudents().contains(student))
-                .collect(Collectors.toList());
-    }
-
-    private User getCurrentStudent() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        if (email == null || email.equals("anonymousUser")) {
-            ServletRequestAttributes attr = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-            if (attr != null) {
-                email = attr.getRequest().getHeader("X-User-Email");
-            }
+    public KeysetPage<CourseCardRow> getCourseCatalog(String query, String after, int limit) {
+        UserSnapshot student = getCurrentStudent();
+        return courseCatalog.page(student.id(), query, after, limit);
+    }
+
+    @Override
+    public LeaderboardRank getRank(Long examId) {
+        UserSnapshot student = getCurrentStudent();
+        requireLeaderboardAccess(examId, student);
+        ExamLeaderboardService.Position position = leaderboards.position(examId, student.id())
+                .orElseThrow(() -> new ResourceNotFoundException("No result for this exam yet"));
+        return new LeaderboardRank(examId, position.rank(), position.total(),
+                position.standing().score(), position.standing().submittedAt());
+    }
+
+    @Override
+    public List<LeaderboardEntry> getLeaderboard(Long examId, int limit) {
+        UserSnapshot student = getCurrentStudent();
+        requireLeaderboardAccess(examId, student);
+        List<ExamLeaderboardService.Standing> top =
+                leaderboards.top(examId, Math.max(1, Math.min(limit, MAX_LEADERBOARD_SIZE)));
+        List<LeaderboardEntry> entries = new ArrayList<>(top.size());
+        for (int i = 0; i < top.size(); i++) {
+            ExamLeaderboardService.Standing standing = top.get(i);
+            UserSnapshot user = currentUserService.byId(standing.studentId());
+            entries.add(new LeaderboardEntry(i + 1, displayName(user), standing.score(), standing.submittedAt()));
+        }
+        return entries;
+    }
+
+    private void requireLeaderboardAccess(Long examId, UserSnapshot student) {
+        AnswerKey key = answerKeyCache.get(examId);
+        if (!key.published() || !courseRepository.existsByIdAndEnrolledStudentsId(key.courseId(), student.id())) {
+            throw new ResourceNotFoundException("Exam not found");
+        }
+    }
+
+    private static String displayName(UserSnapshot user) {
+        String first = user.firstName() != null ? user.firstName() : "";
+        String last = user.lastName();
+        return last == null || last.isEmpty() ? first : first + " " + last.charAt(0) + ".";
+    }
+
+    // Resolved from the token's user id through CurrentUserService; the X-User-Email
+    // header is only used when the request carries no token
+    private UserSnapshot getCurrentStudent() {
+        UserSnapshot student = currentUserService.fromToken();
+        if (student != null) {
+            return student;
         }
-        return userRepository.findByEmail(email)
+        ServletRequestAttributes attr = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        String email = attr != null ? attr.getRequest().getHeader("X-User-Email") : null;
+        return currentUserService.byEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("Student not authenticated"));
     }
 }
@@ -0,0 +1,283 @@
+package com.examplatform.service;
+
+import com.examplatform.exception.TooManyRequestsException;
+import com.examplatform.model.Exam;
+import com.examplatform.model.ExamResult;
+import com.examplatform.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Write-behind queue for graded exam results.
+ *
+ * Request threads hand a graded result to {@link #submit} and block until the flusher
+ * thread has committed the batch that contains it, so an acknowledged submission is
+ * always in the database; one that takes longer than the ack timeout comes back as
+ * pending rather than failed. The flusher writes up to {@code batch-size} results per
+ * transaction, or whatever arrived within {@code flush-interval-ms} of the first one,
+ * letting Hibernate send them as JDBC batches.
+ */
+@Slf4j
+@Service
+public class SubmissionPipeline {
+
+    /** A graded submission waiting to be written; courseId and totalScore feed the GPA totals. */
+    public record PendingResult(Long studentId, Long examId, Long courseId, int score, int totalScore, String status,
+                                Instant submittedAt) {}
+
+    /** The result was definitely not stored. */
+    public static class WriteFailedException extends RuntimeException {
+        public WriteFailedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * What {@link #submit} knew when it stopped waiting: the stored result's id, or a null
+     * id while the write is still queued or in flight, in which case {@code ack} settles
+     * it later.
+     */
+    public record Receipt(Long resultId, CompletableFuture<Long> ack) {
+        public boolean pending() {
+            return resultId == null;
+        }
+    }
+
+    private record Entry(PendingResult result, CompletableFuture<Long> ack, long enqueuedAt) {}
+
+    private final BlockingQueue<Entry> queue;
+    private final TransactionTemplate transactionTemplate;
+    private final StudentCourseAggregateService aggregates;
+    private final ScoreSketchService scoreSketches;
+    private final ExamLeaderboardService leaderboards;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long ackTimeoutMs;
+
+    private final Timer queueWait;
+    private final Timer flushLatency;
+    private final DistributionSummary flushSize;
+    private final Counter rejected;
+    private final Counter failed;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    @Autowired
+    public SubmissionPipeline(PlatformTransactionManager transactionManager,
+                              StudentCourseAggregateService aggregates,
+                              ScoreSketchService scoreSketches,
+                              ExamLeaderboardService leaderboards,
+                              MeterRegistry meterRegistry,
+                              @Value("${exam.submissions.queue-capacity:10000}") int queueCapacity,
+                              @Value("${exam.submissions.batch-size:200}") int batchSize,
+                              @Value("${exam.submissions.flush-interval-ms:25}") long flushIntervalMs,
+                              @Value("${exam.submissions.ack-timeout-ms:10000}") long ackTimeoutMs) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.aggregates = aggregates;
+        this.scoreSketches = scoreSketches;
+        this.leaderboards = leaderboards;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.ackTimeoutMs = ackTimeoutMs;
+
+        Gauge.builder("exam.submissions.queue.depth", queue, BlockingQueue::size)
+                .description("Graded results waiting to be written")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("exam.submissions.queue.wait")
+                .description("Time a result spent queued before its flush started")
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("exam.submissions.flush.latency")
+                .description("Time to write and commit one batch")
+                .register(meterRegistry);
+        this.flushSize = DistributionSummary.builder("exam.submissions.flush.size")
+                .description("Results written per batch")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("exam.submissions.rejected")
+                .description("Submissions refused because the queue was full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("exam.submissions.failed")
+                .description("Results that could not be written")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        flusher = new Thread(this::runFlusher, "submission-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    /**
+     * Queue a graded result and wait, up to {@code ack-timeout-ms}, until it is committed.
+     * A result still in flight after that is reported as pending, never as failed: it
+     * stays queued and may well commit.
+     */
+    public Receipt submit(PendingResult result) {
+        Entry entry = new Entry(result, new CompletableFuture<>(), System.nanoTime());
+        if (!running || !queue.offer(entry)) {
+            rejected.increment();
+            log.warn("Submission queue full, rejecting result for student {} exam {}",
+                    result.studentId(), result.examId());
+            throw new TooManyRequestsException("Too many submissions right now, please retry", 1);
+        }
+        try {
+            return new Receipt(entry.ack().get(ackTimeoutMs, TimeUnit.MILLISECONDS), entry.ack());
+        } catch (TimeoutException e) {
+            log.warn("Result for student {} exam {} not committed within {} ms, answering as pending",
+                    result.studentId(), result.examId(), ackTimeoutMs);
+            return new Receipt(null, entry.ack());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Receipt(null, entry.ack());
+        } catch (ExecutionException e) {
+            throw new WriteFailedException("Failed to record submission", e.getCause());
+        }
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private void runFlusher() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Entry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Submission flusher failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Entry> batch) {
+        long start = System.nanoTime();
+        for (Entry entry : batch) {
+            queueWait.record(start - entry.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+        try {
+            List<Long> ids;
+            try {
+                ids = transactionTemplate.execute(status -> persist(batch));
+            } catch (RuntimeException batchFailure) {
+                // Isolate the bad row(s) so one failure does not fail everyone in the batch.
+                log.warn("Batch of {} exam results failed, retrying individually", batch.size(), batchFailure);
+                ids = new ArrayList<>(batch.size());
+                for (Entry entry : batch) {
+                    try {
+                        ids.add(transactionTemplate.execute(status -> persist(List.of(entry))).get(0));
+                    } catch (RuntimeException e) {
+                        failed.increment();
+                        entry.ack().completeExceptionally(e);
+                        ids.add(null);
+                    }
+                }
+            }
+            // Everything below runs after the commit and must neither re-persist nor fail a stored row
+            for (int i = 0; i < batch.size(); i++) {
+                if (ids.get(i) != null) {
+                    committed(batch.get(i), ids.get(i));
+                }
+            }
+            log.debug("Flushed {} exam results", batch.size());
+        } finally {
+            flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            flushSize.record(batch.size());
+        }
+    }
+
+    private void committed(Entry entry, Long id) {
+        PendingResult result = entry.result();
+        try {
+            scoreSketches.record(result.examId(), result.score());
+        } catch (RuntimeException e) {
+            log.error("Result {} stored but not counted in the score sketch of exam {}", id, result.examId(), e);
+        }
+        try {
+            leaderboards.record(result.examId(), new ExamLeaderboardService.Standing(
+                    id, result.studentId(), result.score(), result.submittedAt()));
+        } catch (RuntimeException e) {
+            log.error("Result {} stored but not ranked on the leaderboard of exam {}", id, result.examId(), e);
+        }
+        entry.ack().complete(id);
+    }
+
+    private List<Long> persist(List<Entry> batch) {
+        List<ExamResult> rows = new ArrayList<>(batch.size());
+        List<StudentCourseAggregateService.Delta> deltas = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            PendingResult pending = entry.result();
+            ExamResult row = new ExamResult();
+            row.setStudent(entityManager.getReference(User.class, pending.studentId()));
+            row.setExam(entityManager.getReference(Exam.class, pending.examId()));
+            row.setSubmittedAt(pending.submittedAt());
+            row.setScore(pending.score());
+            row.setStatus(pending.status());
+            entityManager.persist(row);
+            rows.add(row);
+            deltas.add(new StudentCourseAggregateService.Delta(
+                    pending.studentId(), pending.courseId(), pending.score(), pending.totalScore()));
+        }
+        entityManager.flush();
+        aggregates.apply(deltas);
+        entityManager.clear();
+        return rows.stream().map(ExamResult::getId).toList();
+    }
+}
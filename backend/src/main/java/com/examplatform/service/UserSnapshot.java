@@ -0,0 +1,12 @@
+package com.examplatform.service;
+
+import com.examplatform.model.User;
+
+/** Immutable copy of the fields request handling needs from a {@link User}. */
+public record UserSnapshot(Long id, String email, String firstName, String lastName, String role) {
+
+    static UserSnapshot of(User user) {
+        return new UserSnapshot(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                user.getRole() != null ? user.getRole().getRoleName() : null);
+    }
+}
@@ -0,0 +1,130 @@
+package com.examplatform.config;
+
+import com.examplatform.security.JwtPrincipal;
+import com.examplatform.service.ReadYourWritesGuard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Routes between two embedded H2 databases that only differ in which one they say they are. */
+class ReadReplicaRoutingDataSourceTest {
+
+    private final Counter fallbacks = Counter.builder("fallbacks").register(new SimpleMeterRegistry());
+    private final ReadYourWritesGuard guard = new ReadYourWritesGuard(60_000);
+    private DataSource primary;
+    private DataSource replica;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = database("routing_primary");
+        replica = database("routing_replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyServiceTransaction_usesReplica() throws SQLException {
+        ReadReplicaRoutingDataSource routing = routing(replica);
+        assertEquals("routing_primary", whoAnswers(routing));
+
+        inTransaction("com.examplatform.service.AnalyticsService.gpaAll", true);
+        assertEquals("routing_replica", whoAnswers(routing));
+
+        inTransaction("com.examplatform.service.InstructorServiceImpl.publishExam", false);
+        assertEquals("routing_primary", whoAnswers(routing));
+    }
+
+    @Test
+    void repositoryDefaultTransaction_staysOnPrimary() throws SQLException {
+        inTransaction("org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById", true);
+        assertEquals("routing_primary", whoAnswers(routing(replica)));
+    }
+
+    @Test
+    void replicaDown_fallsBackToPrimary() throws SQLException {
+        JdbcDataSource down = new JdbcDataSource();
+        down.setURL("jdbc:h2:mem:routing_missing;IFEXISTS=TRUE");
+        ReadReplicaRoutingDataSource routing = routing(down);
+
+        inTransaction("com.examplatform.service.AnalyticsService.gpaAll", true);
+        assertEquals("routing_primary", whoAnswers(routing));
+        assertEquals(1, fallbacks.count());
+        // Not retried within the back-off
+        assertEquals("routing_primary", whoAnswers(routing));
+        assertEquals(1, fallbacks.count());
+    }
+
+    @Test
+    void recentWriter_readsFromPrimary() throws SQLException {
+        ReadReplicaRoutingDataSource routing = routing(replica);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal("student@example.com", 7L, List.of("STUDENT"), null), null, List.of()));
+        inTransaction("com.examplatform.service.StudentServiceImpl.getResults", true);
+        assertEquals("routing_replica", whoAnswers(routing));
+
+        guard.recordWrite(7L);
+        assertEquals("routing_primary", whoAnswers(routing));
+
+        guard.recordWrite(8L);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal("other@example.com", 9L, List.of("STUDENT"), null), null, List.of()));
+        assertEquals("routing_replica", whoAnswers(routing));
+    }
+
+    @Test
+    void instructorEdit_readsBackFromPrimary() throws SQLException {
+        ReadReplicaRoutingDataSource routing = routing(replica);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal("instructor@example.com", 11L, List.of("INSTRUCTOR"), null), null, List.of()));
+        inTransaction("com.examplatform.service.InstructorServiceImpl.getExam", true);
+        assertEquals("routing_replica", whoAnswers(routing));
+
+        guard.recordWrite();
+        assertEquals("routing_primary", whoAnswers(routing));
+    }
+
+    private ReadReplicaRoutingDataSource routing(DataSource replica) {
+        return new ReadReplicaRoutingDataSource(primary, replica, guard, 60_000, fallbacks);
+    }
+
+    private static void inTransaction(String name, boolean readOnly) {
+        TransactionSynchronizationManager.setCurrentTransactionName(name);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static DataSource database(String name) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        try (Connection c = dataSource.getConnection()) {
+            c.createStatement().execute("create table if not exists whoami (name varchar(50))");
+            c.createStatement().execute("delete from whoami");
+            c.createStatement().execute("insert into whoami values ('" + name + "')");
+        }
+        return dataSource;
+    }
+
+    private static String whoAnswers(DataSource dataSource) throws SQLException {
+        try (Connection c = dataSource.getConnection();
+             var rs = c.createStatement().executeQuery("select name from whoami")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.examplatform.loadsim;
+
+import com.examplatform.model.Course;
+import com.examplatform.model.Exam;
+import com.examplatform.model.OptionValue;
+import com.examplatform.model.Question;
+import com.examplatform.model.Role;
+import com.examplatform.model.StudentCourseAggregate;
+import com.examplatform.model.User;
+import com.examplatform.repository.CourseRepository;
+import com.examplatform.repository.ExamRepository;
+import com.examplatform.repository.ExamResultRepository;
+import com.examplatform.repository.RoleRepository;
+import com.examplatform.repository.StudentCourseAggregateRepository;
+import com.examplatform.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Replays an exam day against the real controllers on the embedded H2 profile:
+ * every synthetic student logs in, lists exams, opens one, autosaves once and submits,
+ * each on its own virtual thread. Prints throughput and p50/p95/p99 per endpoint and
+ * writes the same table to target/loadsim-report.txt.
+ *
+ * Excluded from the normal build; run with
+ * {@code mvn -Ploadsim test -Dloadsim.students=2000 -Dloadsim.exams=4}.
+ */
+@Tag("loadsim")
+@ActiveProfiles("h2")
+// Every simulated student comes from 127.0.0.1, so lift the per-IP login limit.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "auth.rate-limit.ip.capacity=1000000")
+class ExamDayLoadSimulationTest {
+
+    private static final String PASSWORD = "loadsim-password";
+    private static final int MAX_RETRIES = 20;
+
+    private final int students = Integer.getInteger("loadsim.students", 200);
+    private final int exams = Integer.getInteger("loadsim.exams", 2);
+    private final int questionsPerExam = Integer.getInteger("loadsim.questions", 40);
+    private final int questionsPerAttempt = Integer.getInteger("loadsim.questions-per-attempt", 20);
+    private final long rampUpMs = Long.getLong("loadsim.ramp-up-ms", 2000);
+    private final long thinkMs = Long.getLong("loadsim.think-ms", 200);
+
+    @LocalServerPort int port;
+    @Autowired UserRepository userRepository;
+    @Autowired RoleRepository roleRepository;
+    @Autowired CourseRepository courseRepository;
+    @Autowired ExamRepository examRepository;
+    @Autowired ExamResultRepository examResultRepository;
+    @Autowired StudentCourseAggregateRepository studentCourseAggregateRepository;
+    @Autowired PasswordEncoder passwordEncoder;
+    @Autowired ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final LatencyReport report = new LatencyReport();
+    private final AtomicReference<Exception> firstFailure = new AtomicReference<>();
+
+    @Test
+    void examDay() throws Exception {
+        List<String> emails = seed();
+
+        long start = System.nanoTime();
+        try (ExecutorService students = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String email : emails) {
+                students.submit(() -> {
+                    try {
+                        takeExam(email);
+                    } catch (Exception e) {
+                        report.error("student aborted");
+                        firstFailure.compareAndSet(null, e);
+                    }
+                    return null;
+                });
+            }
+        }
+        long wall = System.nanoTime() - start;
+
+        String table = report.format(wall);
+        System.out.println();
+        System.out.printf("Exam day: %d students, %d exams, %d/%d questions per attempt%n",
+                this.students, exams, questionsPerAttempt, questionsPerExam);
+        System.out.println(table);
+        Files.writeString(Path.of("target", "loadsim-report.txt"), table);
+
+        if (firstFailure.get() != null) {
+            fail("a student aborted the exam", firstFailure.get());
+        }
+        report.endpoints().forEach((endpoint, stats) -> assertEquals(0, stats.errors(), endpoint + " errors"));
+        assertEquals(this.students, examResultRepository.count(), "every student should have a recorded result");
+        assertEquals(this.students, studentCourseAggregateRepository.findAll().stream()
+                .mapToInt(StudentCourseAggregate::getResultCount).sum(), "GPA totals should match exam_result");
+        assertTrue(examResultRepository.findAll().stream().anyMatch(r -> r.getScore() > 0),
+                "random answers should score on some attempts; all-zero scores mean grading was not exercised");
+    }
+
+    private void takeExam(String email) throws Exception {
+        Thread.sleep(ThreadLocalRandom.current().nextLong(rampUpMs + 1));
+
+        JsonNode login = call("POST /api/auth/login", null,
+                post("/api/auth/login", Map.of("email", email, "password", PASSWORD)));
+        String token = login.get("accessToken").asText();
+
+        JsonNode available = call("GET /api/students/exams", token, get("/api/students/exams"));
+        long examId = available.get(0).get("id").asLong();
+
+        JsonNode exam = call("GET /api/students/exams/{id}", token, get("/api/students/exams/" + examId));
+        List<Long> questionIds = new ArrayList<>();
+        List<String> answers = new ArrayList<>();
+        for (JsonNode question : exam.get("questions")) {
+            questionIds.add(question.get("id").asLong());
+            JsonNode options = question.get("options");
+            answers.add(options.get(ThreadLocalRandom.current().nextInt(options.size())).get("optionText").asText());
+        }
+        Map<String, Object> body = Map.of("questionIds", questionIds, "answers", answers);
+
+        Thread.sleep(thinkMs);
+        call("PUT /api/students/exams/{id}/draft", token, put("/api/students/exams/" + examId + "/draft", body));
+        Thread.sleep(thinkMs);
+        call("POST /api/students/exams/{id}/submit", token, post("/api/students/exams/" + examId + "/submit", body));
+        JsonNode rank = call("GET /api/students/exams/{id}/rank", token, get("/api/students/exams/" + examId + "/rank"));
+        if (rank.get("rank").asInt() < 1 || rank.get("rank").asInt() > rank.get("total").asInt()) {
+            throw new IOException("Rank out of range: " + rank);
+        }
+    }
+
+    /** Send with the token, retrying 429s after Retry-After the way the browser client should. */
+    private JsonNode call(String endpoint, String token, HttpRequest.Builder request) throws Exception {
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest built = request.timeout(Duration.ofSeconds(30)).build();
+        for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
+            long t0 = System.nanoTime();
+            HttpResponse<String> response = http.send(built, HttpResponse.BodyHandlers.ofString());
+            long elapsed = System.nanoTime() - t0;
+            if (response.statusCode() == 429) {
+                report.throttled(endpoint);
+                long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+                Thread.sleep(retryAfter * 1000 + ThreadLocalRandom.current().nextLong(250));
+                continue;
+            }
+            if (response.statusCode() / 100 != 2) {
+                report.error(endpoint);
+                throw new IOException(endpoint + " -> " + response.statusCode() + " " + response.body());
+            }
+            report.ok(endpoint, elapsed);
+            String text = response.body();
+            return text.isEmpty() || !(text.startsWith("{") || text.startsWith("["))
+                    ? objectMapper.nullNode()
+                    : objectMapper.readTree(text);
+        }
+        report.error(endpoint);
+        throw new IOException(endpoint + " still throttled after " + MAX_RETRIES + " tries");
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, Object body) throws IOException {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+    }
+
+    private HttpRequest.Builder put(String path, Object body) throws IOException {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    /** One instructor, one course per exam, students spread round-robin over the courses. */
+    private List<String> seed() {
+        Role studentRole = roleRepository.findByRoleName("STUDENT").orElseThrow();
+        Role instructorRole = roleRepository.findByRoleName("INSTRUCTOR").orElseThrow();
+        String hash = passwordEncoder.encode(PASSWORD); // one BCrypt run, not one per student
+
+        User instructor = new User();
+        instructor.setEmail("instructor@loadsim.test");
+        instructor.setPassword(hash);
+        instructor.setRole(instructorRole);
+        instructor = userRepository.save(instructor);
+
+        List<User> seeded = new ArrayList<>(students);
+        for (int i = 0; i < students; i++) {
+            User student = new User();
+            student.setEmail("student" + i + "@loadsim.test");
+            student.setPassword(hash);
+            student.setFirstName("Student");
+            student.setLastName(String.valueOf(i));
+            student.setRole(studentRole);
+            seeded.add(student);
+        }
+        seeded = userRepository.saveAll(seeded);
+
+        for (int e = 0; e < exams; e++) {
+            List<User> enrolled = new ArrayList<>();
+            for (int i = e; i < seeded.size(); i += exams) {
+                enrolled.add(seeded.get(i));
+            }
+            Course course = new Course();
+            course.setName("Load simulation course " + e);
+            course.setCapacity(Math.max(10, enrolled.size()));
+            course.setInstructors(new ArrayList<>(List.of(instructor)));
+            course.setEnrolledStudents(enrolled);
+            course = courseRepository.save(course);
+            examRepository.save(exam(course, e));
+        }
+        return seeded.stream().map(User::getEmail).toList();
+    }
+
+    private Exam exam(Course course, int index) {
+        Exam exam = new Exam();
+        exam.setTitle("Load simulation exam " + index);
+        exam.setCourse(course);
+        exam.setDuration(60);
+        exam.setMaxAttempts(1);
+        exam.setNumberOfQuestions(questionsPerAttempt);
+        exam.setPublished(true);
+        List<Question> questions = new ArrayList<>();
+        for (int q = 0; q < questionsPerExam; q++) {
+            List<OptionValue> options = new ArrayList<>();
+            for (int o = 0; o < 4; o++) {
+                options.add(new OptionValue(o == 0, "Option " + (char) ('A' + o) + " of question " + q));
+            }
+            Question question = new Question();
+            question.setText("Question " + q + " of exam " + index);
+            question.setOptions(options);
+            question.setCorrectAnswer(options.get(0).getOptionText());
+            question.setMarks(2);
+            question.setExam(exam);
+            questions.add(question);
+        }
+        exam.setQuestions(questions);
+        exam.setTotalScore(questionsPerAttempt * 2);
+        return exam;
+    }
+}
@@ -0,0 +1,75 @@
+package com.examplatform.loadsim;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Per-endpoint latency samples and outcome counts collected during a simulation run. */
+class LatencyReport {
+
+    static final class Endpoint {
+        private final ConcurrentLinkedQueue<Long> okNanos = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger throttled = new AtomicInteger();
+        private final AtomicInteger errors = new AtomicInteger();
+
+        int ok() { return okNanos.size(); }
+        int throttled() { return throttled.get(); }
+        int errors() { return errors.get(); }
+    }
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    void ok(String endpoint, long nanos) {
+        endpoint(endpoint).okNanos.add(nanos);
+    }
+
+    void throttled(String endpoint) {
+        endpoint(endpoint).throttled.incrementAndGet();
+    }
+
+    void error(String endpoint) {
+        endpoint(endpoint).errors.incrementAndGet();
+    }
+
+    Endpoint endpoint(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, e -> new Endpoint());
+    }
+
+    Map<String, Endpoint> endpoints() {
+        return endpoints;
+    }
+
+    /** Fixed-width table: one row per endpoint, latencies in milliseconds. */
+    String format(long wallNanos) {
+        double seconds = wallNanos / 1e9;
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-36s %7s %6s %6s %9s %9s %9s %9s %9s%n",
+                "endpoint", "ok", "429", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        endpoints.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> {
+                    Endpoint ep = e.getValue();
+                    long[] sorted = ep.okNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+                    out.append(String.format("%-36s %7d %6d %6d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                            e.getKey(), sorted.length, ep.throttled(), ep.errors(), sorted.length / seconds,
+                            millis(percentile(sorted, 50)), millis(percentile(sorted, 95)),
+                            millis(percentile(sorted, 99)), millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1])));
+                });
+        out.append(String.format("wall time %.1f s%n", seconds));
+        return out.toString();
+    }
+
+    /** Nearest-rank percentile of an ascending array. */
+    static long percentile(long[] sorted, int p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
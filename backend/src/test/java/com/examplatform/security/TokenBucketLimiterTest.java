@@ -0,0 +1,46 @@
+package com.examplatform.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_allowsBurstThenReportsWait() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, 6, 1000); // one token every 10s
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("a", 0));
+        }
+        assertEquals(10, limiter.tryAcquire("a", 0));
+        assertEquals(0, limiter.tryAcquire("b", 0), "keys have separate buckets");
+    }
+
+    @Test
+    void tryAcquire_refillsLazily_upToCapacity() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 60, 1000); // one token per second
+        assertEquals(0, limiter.tryAcquire("a", 0));
+        assertEquals(0, limiter.tryAcquire("a", 0));
+        assertTrue(limiter.tryAcquire("a", SECOND / 2) > 0);
+        assertEquals(0, limiter.tryAcquire("a", SECOND + SECOND / 2));
+
+        // A long idle period only refills to capacity.
+        long later = 1000 * SECOND;
+        assertEquals(0, limiter.tryAcquire("a", later));
+        assertEquals(0, limiter.tryAcquire("a", later));
+        assertTrue(limiter.tryAcquire("a", later) > 0);
+    }
+
+    @Test
+    void size_isBoundedByMaxKeys() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1, 640);
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("client-" + i, 0);
+        }
+        assertTrue(limiter.size() <= 640, "size " + limiter.size());
+    }
+}
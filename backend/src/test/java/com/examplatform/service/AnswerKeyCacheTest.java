@@ -0,0 +1,65 @@
+package com.examplatform.service;
+
+import com.examplatform.model.Course;
+import com.examplatform.model.Exam;
+import com.examplatform.repository.ExamRepository;
+import com.examplatform.repository.QuestionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AnswerKeyCacheTest {
+
+    private final ExamRepository examRepository = mock(ExamRepository.class);
+    private final QuestionRepository questionRepository = mock(QuestionRepository.class);
+    private final AnswerKeyCache cache = new AnswerKeyCache(examRepository, questionRepository);
+
+    @Test
+    void get_cachesPublishedKey() {
+        when(examRepository.findById(7L)).thenReturn(Optional.of(exam(true)));
+        when(questionRepository.findAnswerKeyByExamId(7L)).thenReturn(List.of());
+
+        assertSame(cache.get(7L), cache.get(7L));
+        verify(examRepository, times(1)).findById(7L);
+    }
+
+    @Test
+    void evictionDuringLoad_keepsTheStaleKeyOutOfTheCache() {
+        // An instructor's edit commits (and evicts) while the first load is reading
+        when(examRepository.findById(7L)).thenAnswer(call -> {
+            cache.evict(7L);
+            return Optional.of(exam(true));
+        }).thenReturn(Optional.of(exam(true)));
+        when(questionRepository.findAnswerKeyByExamId(7L)).thenReturn(List.of());
+
+        AnswerKey stale = cache.get(7L);
+
+        assertNotSame(stale, cache.get(7L));
+        verify(examRepository, times(2)).findById(7L);
+    }
+
+    @Test
+    void get_neverCachesUnpublishedKey() {
+        when(examRepository.findById(7L)).thenReturn(Optional.of(exam(false)));
+        when(questionRepository.findAnswerKeyByExamId(7L)).thenReturn(List.of());
+
+        cache.get(7L);
+        cache.get(7L);
+        verify(examRepository, times(2)).findById(7L);
+    }
+
+    private static Exam exam(boolean published) {
+        Course course = new Course();
+        course.setId(3L);
+        Exam exam = new Exam();
+        exam.setId(7L);
+        exam.setCourse(course);
+        exam.setTotalScore(10);
+        exam.setPublished(published);
+        return exam;
+    }
+}
@@ -0,0 +1,50 @@
+package com.examplatform.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnswerKeyTest {
+
+    // Deliberately unsorted ids to make sure lookups do not depend on input order
+    private final AnswerKey key = new AnswerKey(7L, 3L, 30, 9, 1, true, 3,
+            new long[]{30L, 10L, 20L},
+            new String[]{"Paris ", "4", "blue"},
+            new int[]{10, 10, 10});
+
+    @Test
+    void grade_matchesAnswersById_notByPosition() {
+        int points = key.grade(List.of(20L, 30L, 10L), List.of("blue", "paris", "5"));
+        assertEquals(20, points);
+    }
+
+    @Test
+    void grade_ignoresCaseAndSurroundingWhitespace() {
+        assertEquals(30, key.grade(List.of(10L, 20L, 30L), List.of(" 4", "BLUE\t", "  pArIs  ")));
+    }
+
+    @Test
+    void grade_countsRepeatedQuestionOnce() {
+        assertEquals(10, key.grade(List.of(10L, 10L, 10L), List.of("4", "4", "4")));
+    }
+
+    @Test
+    void grade_treatsNullAnswerAsWrong() {
+        assertEquals(10, key.grade(List.of(10L, 20L), Arrays.asList("4", null)));
+    }
+
+    @Test
+    void grade_throwsForQuestionFromAnotherExam() {
+        assertThrows(IllegalArgumentException.class,
+                () -> key.grade(List.of(10L, 99L), List.of("4", "x")));
+    }
+
+    @Test
+    void grade_throwsWhenCountsDiffer() {
+        assertThrows(IllegalArgumentException.class,
+                () -> key.grade(List.of(10L, 20L), List.of("4")));
+    }
+}
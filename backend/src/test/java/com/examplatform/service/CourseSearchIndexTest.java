@@ -0,0 +1,42 @@
+package com.examplatform.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseSearchIndexTest {
+
+    @Test
+    void search_matchesSubstringsCaseInsensitively() {
+        CourseSearchIndex index = new CourseSearchIndex();
+        index.put(3L, "Intro to Databases", "SQL, indexing and transactions");
+        index.put(1L, "Data Structures", null);
+        index.put(2L, "Poetry", "Reading and writing verse");
+
+        assertArrayEquals(new long[]{1, 3}, index.search("DATA"));
+        assertArrayEquals(new long[]{3}, index.search("index"));
+        assertArrayEquals(new long[]{2, 3}, index.search("and"));
+        assertArrayEquals(new long[]{}, index.search("chemistry"));
+        // Shorter than a gram: checked against every course
+        assertArrayEquals(new long[]{3}, index.search("sq"));
+    }
+
+    @Test
+    void putAndRemove_keepPostingsCurrent() {
+        CourseSearchIndex index = new CourseSearchIndex();
+        index.put(1L, "Algebra", "");
+        index.put(1L, "Geometry", "");
+        assertArrayEquals(new long[]{}, index.search("algebra"));
+        assertArrayEquals(new long[]{1}, index.search("geometry"));
+
+        index.remove(1L);
+        assertArrayEquals(new long[]{}, index.search("geometry"));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void booleanModeTerms_requireEveryWordAsPrefix() {
+        assertEquals("+intro* +data*", CourseCatalogService.booleanModeTerms("  Intro, DATA! "));
+        assertEquals("", CourseCatalogService.booleanModeTerms("+-*\"()"));
+    }
+}
@@ -0,0 +1,152 @@
+package com.examplatform.service;
+
+import com.examplatform.repository.WaitlistEntryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/** Promotion against an embedded H2 database with the same tables as production. */
+class CourseWaitlistServiceTest {
+
+    private static final long COURSE = 1L;
+
+    private NamedParameterJdbcTemplate jdbc;
+    private CourseWaitlistService waitlist;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:waitlist;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        jdbc = new NamedParameterJdbcTemplate(dataSource);
+        jdbc.getJdbcTemplate().execute("drop all objects");
+        jdbc.getJdbcTemplate().execute("create table course (id bigint primary key, capacity int, enrolled_count int)");
+        jdbc.getJdbcTemplate().execute("create table course_student (course_id bigint, student_id bigint, "
+                + "primary key (course_id, student_id))");
+        jdbc.getJdbcTemplate().execute("create table course_waitlist (id bigint auto_increment primary key, "
+                + "course_id bigint, student_id bigint, joined_at timestamp default current_timestamp, "
+                + "unique (course_id, student_id))");
+
+        WaitlistEntryRepository repository = mock(WaitlistEntryRepository.class);
+        when(repository.deleteByCourseAndStudent(anyLong(), anyLong())).thenAnswer(call -> jdbc.update(
+                "delete from course_waitlist where course_id = :courseId and student_id = :studentId",
+                new MapSqlParameterSource("courseId", call.getArgument(0)).addValue("studentId", call.getArgument(1))));
+        waitlist = new CourseWaitlistService(repository, jdbc, new DataSourceTransactionManager(dataSource),
+                new SimpleMeterRegistry(), 7);
+    }
+
+    @Test
+    void promote_fillsFreeSeatsInQueueOrder() {
+        course(5);
+        queue(1, 12);
+        waitlist.load();
+
+        assertEquals(5, waitlist.promote(COURSE));
+
+        assertEquals(Set.of(1L, 2L, 3L, 4L, 5L), enrolled());
+        assertEquals(5, enrolledCount());
+        assertEquals(new CourseWaitlistService.Position(1, 7), waitlist.position(COURSE, 6L).orElseThrow());
+    }
+
+    @Test
+    void promote_dropsTheQueueOnceEveryoneIsServed() {
+        course(20);
+        queue(1, 12);
+        waitlist.load();
+
+        assertEquals(12, waitlist.promote(COURSE));
+
+        assertFalse(waitlist.hasWaiting(COURSE));
+        assertEquals(0, countWaitlistRows());
+        assertTrue(waitlist.position(COURSE, 12L).isEmpty());
+    }
+
+    @Test
+    void leaveRacingPromotion_neverEnrollsAStudentWhoLeft() throws Exception {
+        int students = 40;
+        for (int round = 0; round < 25; round++) {
+            setUp();
+            course(students / 2);
+            queue(1, students);
+            waitlist.load();
+
+            Set<Long> left = ConcurrentHashMap.newKeySet();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> tasks = new ArrayList<>();
+            try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+                tasks.add(pool.submit(() -> {
+                    start.await();
+                    return waitlist.promote(COURSE);
+                }));
+                for (long student = 1; student <= students; student++) {
+                    long id = student;
+                    tasks.add(pool.submit(() -> {
+                        start.await();
+                        if (waitlist.leave(COURSE, id)) {
+                            left.add(id);
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> task : tasks) {
+                    task.get();
+                }
+            }
+
+            Set<Long> enrolled = enrolled();
+            for (long student = 1; student <= students; student++) {
+                assertTrue(left.contains(student) ^ enrolled.contains(student),
+                        "round " + round + ": student " + student + " must have either left or been enrolled");
+            }
+            assertEquals(enrolled.size(), enrolledCount());
+            assertEquals(0, countWaitlistRows());
+            assertFalse(waitlist.hasWaiting(COURSE));
+        }
+    }
+
+    private void course(int capacity) {
+        jdbc.update("insert into course (id, capacity, enrolled_count) values (:id, :capacity, 0)",
+                new MapSqlParameterSource("id", COURSE).addValue("capacity", capacity));
+    }
+
+    /** Students {@code from..to} join in that order. */
+    private void queue(long from, long to) {
+        for (long student = from; student <= to; student++) {
+            jdbc.update("insert into course_waitlist (course_id, student_id) values (:courseId, :studentId)",
+                    new MapSqlParameterSource("courseId", COURSE).addValue("studentId", student));
+        }
+    }
+
+    private Set<Long> enrolled() {
+        return new HashSet<>(jdbc.queryForList("select student_id from course_student where course_id = :courseId",
+                new MapSqlParameterSource("courseId", COURSE), Long.class));
+    }
+
+    private int enrolledCount() {
+        return jdbc.queryForObject("select enrolled_count from course where id = :id",
+                new MapSqlParameterSource("id", COURSE), Integer.class);
+    }
+
+    private int countWaitlistRows() {
+        return jdbc.getJdbcTemplate().queryForObject("select count(*) from course_waitlist", Integer.class);
+    }
+}
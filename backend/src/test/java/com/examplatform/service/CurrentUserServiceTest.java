@@ -0,0 +1,55 @@
+package com.examplatform.service;
+
+import com.examplatform.model.User;
+import com.examplatform.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CurrentUserServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final CurrentUserService users = new CurrentUserService(userRepository, 100);
+
+    @Test
+    void byId_cachesTheSnapshot() {
+        when(userRepository.findById(5L)).thenReturn(Optional.of(user("old@example.com")));
+
+        assertSame(users.byId(5L), users.byId(5L));
+        verify(userRepository, times(1)).findById(5L);
+    }
+
+    @Test
+    void evictionDuringLoad_keepsTheOldSnapshotOutOfTheCache() {
+        // An admin's edit commits (and evicts) while the first load is reading the old row
+        when(userRepository.findById(5L)).thenAnswer(call -> {
+            users.evict(5L);
+            return Optional.of(user("old@example.com"));
+        }).thenReturn(Optional.of(user("new@example.com")));
+
+        assertEquals("old@example.com", users.byId(5L).email());
+        assertEquals("new@example.com", users.byId(5L).email());
+    }
+
+    @Test
+    void evictionDuringEmailLoad_keepsTheOldSnapshotOutOfTheCache() {
+        when(userRepository.findByEmail("old@example.com")).thenAnswer(call -> {
+            users.evict(5L);
+            return Optional.of(user("old@example.com"));
+        });
+        when(userRepository.findById(5L)).thenReturn(Optional.of(user("new@example.com")));
+
+        users.byEmail("old@example.com");
+        assertEquals("new@example.com", users.byId(5L).email());
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setId(5L);
+        user.setEmail(email);
+        return user;
+    }
+}
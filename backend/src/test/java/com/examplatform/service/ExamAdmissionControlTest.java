@@ -0,0 +1,35 @@
+package com.examplatform.service;
+
+import com.examplatform.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExamAdmissionControlTest {
+
+    private final ExamAdmissionControl admission =
+            new ExamAdmissionControl(new SimpleMeterRegistry(), 100, 2, 0, 0, 1, 50, 600_000);
+
+    @Test
+    void madeUpExamIds_doNotGrowTheGatesPastTheCap() {
+        for (long examId = 1; examId <= 10_000; examId++) {
+            admission.admit(examId).release();
+        }
+        assertTrue(admission.gateCount() <= 50, "gates: " + admission.gateCount());
+    }
+
+    @Test
+    void busyGate_isNeverEvicted() {
+        ExamAdmissionControl.Ticket first = admission.admit(7L);
+        ExamAdmissionControl.Ticket second = admission.admit(7L);
+        admission.evictIdle(System.nanoTime());
+
+        // Still the same gate, still full
+        assertThrows(TooManyRequestsException.class, () -> admission.admit(7L));
+        first.release();
+        second.release();
+        admission.evictIdle(System.nanoTime());
+        assertEquals(0, admission.gateCount());
+    }
+}
@@ -0,0 +1,58 @@
+package com.examplatform.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStatisticTreeTest {
+
+    @Test
+    void randomOperations_matchSortedList() {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            int value = random.nextInt(1000);
+            int at = Collections.binarySearch(expected, value);
+            if (random.nextInt(3) == 0) {
+                assertEquals(at >= 0, tree.remove(value));
+                if (at >= 0) expected.remove(at);
+            } else {
+                assertEquals(at < 0, tree.add(value));
+                if (at < 0) expected.add(-at - 1, value);
+            }
+            int probe = random.nextInt(1000);
+            int probeAt = Collections.binarySearch(expected, probe);
+            assertEquals(probeAt >= 0 ? probeAt : -probeAt - 1, tree.rank(probe));
+        }
+        assertEquals(expected.size(), tree.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), tree.get(i));
+        }
+        assertEquals(expected.subList(0, 10), tree.first(10));
+        assertEquals(expected, tree.first(Integer.MAX_VALUE));
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.get(expected.size()));
+    }
+
+    @Test
+    void leaderboardOrder_highScoreThenEarliest() {
+        Instant t = Instant.parse("2026-01-01T10:00:00Z");
+        var late = new ExamLeaderboardService.Standing(3, 30, 90, t.plusSeconds(60));
+        var early = new ExamLeaderboardService.Standing(2, 20, 90, t);
+        var legacy = new ExamLeaderboardService.Standing(9, 40, 90, null);
+        var top = new ExamLeaderboardService.Standing(1, 10, 95, t.plusSeconds(120));
+        OrderStatisticTree<ExamLeaderboardService.Standing> tree =
+                new OrderStatisticTree<>(ExamLeaderboardService.ORDER);
+        List.of(late, early, legacy, top).forEach(tree::add);
+
+        assertEquals(List.of(top, legacy, early, late), tree.first(4));
+        assertEquals(2, tree.rank(early));
+    }
+}
@@ -0,0 +1,77 @@
+package com.examplatform.service;
+
+import com.examplatform.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PasswordHashingExecutorTest {
+
+    /** Every check takes 100 ms, like a BCrypt at strength 10. */
+    private final PasswordEncoder slowEncoder = mock(PasswordEncoder.class);
+
+    PasswordHashingExecutorTest() {
+        when(slowEncoder.matches(any(), any())).thenAnswer(call -> {
+            Thread.sleep(100);
+            return true;
+        });
+    }
+
+    @Test
+    void checksThatWaitedPastTheLimit_areRefusedWithoutHashing() {
+        PasswordHashingExecutor hashing = new PasswordHashingExecutor(slowEncoder, new SimpleMeterRegistry(),
+                1, 10, 250, 2);
+        List<CompletableFuture<Boolean>> checks = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            checks.add(hashing.matches("secret", "hash"));
+        }
+
+        int answered = 0;
+        int refused = 0;
+        for (CompletableFuture<Boolean> check : checks) {
+            try {
+                assertTrue(check.join());
+                answered++;
+            } catch (CompletionException e) {
+                assertInstanceOf(TooManyRequestsException.class, e.getCause());
+                refused++;
+            }
+        }
+        // About 250 ms of work fits in the wait limit; the rest is shed rather than hashed late
+        assertTrue(answered >= 2 && answered <= 4, "answered " + answered);
+        assertEquals(6, answered + refused);
+        verify(slowEncoder, times(answered)).matches(any(), any());
+        hashing.shutdown();
+    }
+
+    @Test
+    void defaultQueue_holdsWhatThePoolCanHashWithinTheWaitLimit() {
+        when(slowEncoder.encode(any())).thenAnswer(call -> {
+            Thread.sleep(100);
+            return "hash";
+        });
+        PasswordHashingExecutor hashing = new PasswordHashingExecutor(slowEncoder, new SimpleMeterRegistry(),
+                1, 0, 500, 2);
+        // 1 thread x 500 ms / ~100 ms per hash: room for about 5 waiting, 1 running
+        int accepted = 0;
+        try {
+            for (int i = 0; i < 20; i++) {
+                hashing.matches("secret", "hash");
+                accepted++;
+            }
+        } catch (TooManyRequestsException expected) {
+            // queue full
+        }
+        assertTrue(accepted >= 2 && accepted <= 7, "accepted " + accepted);
+        hashing.shutdown();
+    }
+}
@@ -0,0 +1,41 @@
+package com.examplatform.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionSamplerTest {
+
+    private final long[] pool = LongStream.rangeClosed(101, 200).toArray();
+
+    @Test
+    void sample_sameSeed_sameQuestionsInSameOrder() {
+        assertArrayEquals(QuestionSampler.sample(pool, 10, 42L), QuestionSampler.sample(pool, 10, 42L));
+    }
+
+    @Test
+    void sample_drawsDistinctIdsFromThePool() {
+        long[] drawn = QuestionSampler.sample(pool, 25, 7L);
+        assertEquals(25, drawn.length);
+        Set<Long> unique = new HashSet<>();
+        for (long id : drawn) {
+            assertTrue(id >= 101 && id <= 200);
+            assertTrue(unique.add(id), "duplicate id " + id);
+        }
+    }
+
+    @Test
+    void sample_clampsToPoolSize_andLeavesPoolUntouched() {
+        long[] copy = pool.clone();
+        long[] drawn = QuestionSampler.sample(pool, 500, 3L);
+        assertEquals(pool.length, drawn.length);
+        Arrays.sort(drawn);
+        assertArrayEquals(pool, drawn);
+        assertArrayEquals(copy, pool);
+    }
+}
@@ -0,0 +1,130 @@
+package com.examplatform.service;
+
+import com.examplatform.model.RefreshToken;
+import com.examplatform.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/** Runs against a map-backed stand-in for the refresh_token table. */
+class RefreshTokenServiceTest {
+
+    private final Map<String, RefreshToken> rows = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final RefreshTokenRepository repository = mock(RefreshTokenRepository.class);
+    private final RefreshTokenService service = new RefreshTokenService(repository, 12, 24);
+
+    @BeforeEach
+    void setUp() {
+        when(repository.save(any(RefreshToken.class))).thenAnswer(call -> {
+            RefreshToken row = call.getArgument(0);
+            row.setId(ids.incrementAndGet());
+            rows.put(row.getTokenHash(), row);
+            return row;
+        });
+        when(repository.findByTokenHash(anyString()))
+                .thenAnswer(call -> Optional.ofNullable(rows.get(call.<String>getArgument(0))));
+        when(repository.revoke(anyLong(), any())).thenAnswer(call -> {
+            RefreshToken row = byId(call.getArgument(0));
+            if (row.getRevokedAt() != null) {
+                return 0;
+            }
+            row.setRevokedAt(call.getArgument(1));
+            return 1;
+        });
+        when(repository.revokeAllForUser(anyLong(), any())).thenAnswer(call -> {
+            int revoked = 0;
+            for (RefreshToken row : rows.values()) {
+                if (row.getUserId().equals(call.getArgument(0)) && row.getRevokedAt() == null) {
+                    row.setRevokedAt(call.getArgument(1));
+                    revoked++;
+                }
+            }
+            return revoked;
+        });
+    }
+
+    @Test
+    void rotate_spendsTheTokenAndKeepsTheSessionExpiry() {
+        RefreshTokenService.Issued first = service.issue(5L);
+        RefreshTokenService.Issued second = service.rotate(first.token());
+
+        assertEquals(5L, second.userId());
+        assertNotEquals(first.token(), second.token());
+        assertEquals(2, rows.size());
+        assertEquals(1, rows.values().stream().map(RefreshToken::getSessionExpiresAt).distinct().count());
+    }
+
+    @Test
+    void rotate_reusedToken_revokesEveryTokenOfTheUser() {
+        RefreshTokenService.Issued first = service.issue(5L);
+        RefreshTokenService.Issued second = service.rotate(first.token());
+        RefreshTokenService.Issued otherDevice = service.issue(5L);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.rotate(first.token()));
+        assertEquals("Refresh token already used", e.getMessage());
+        assertThrows(RuntimeException.class, () -> service.rotate(second.token()));
+        assertThrows(RuntimeException.class, () -> service.rotate(otherDevice.token()));
+    }
+
+    @Test
+    void rotate_expiredToken_isRefused() {
+        RefreshTokenService.Issued issued = service.issue(5L);
+        only().setExpiresAt(Instant.now().minusSeconds(1));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.rotate(issued.token()));
+        assertEquals("Refresh token expired", e.getMessage());
+    }
+
+    @Test
+    void rotate_pastTheSessionLimit_isRefusedEvenWithAFreshToken() {
+        RefreshTokenService.Issued issued = service.issue(5L);
+        RefreshToken row = only();
+        // A chain refreshed for a whole day: the token is fresh, the session is not
+        row.setCreatedAt(Instant.now().minus(Duration.ofHours(25)));
+        row.setExpiresAt(Instant.now().plus(Duration.ofHours(1)));
+        row.setSessionExpiresAt(Instant.now().minusSeconds(1));
+
+        assertThrows(RuntimeException.class, () -> service.rotate(issued.token()));
+    }
+
+    @Test
+    void rotate_nearTheSessionLimit_capsTheNewTokenAtIt() {
+        RefreshTokenService.Issued issued = service.issue(5L);
+        Instant sessionEnd = Instant.now().plus(Duration.ofHours(1));
+        only().setSessionExpiresAt(sessionEnd);
+
+        assertEquals(sessionEnd, service.rotate(issued.token()).expiresAt());
+    }
+
+    @Test
+    void revokeAll_endsEverySession() {
+        RefreshTokenService.Issued phone = service.issue(5L);
+        RefreshTokenService.Issued laptop = service.issue(5L);
+
+        assertEquals(2, service.revokeAll(5L));
+        assertThrows(RuntimeException.class, () -> service.rotate(phone.token()));
+        assertThrows(RuntimeException.class, () -> service.rotate(laptop.token()));
+    }
+
+    private RefreshToken only() {
+        assertEquals(1, rows.size());
+        return rows.values().iterator().next();
+    }
+
+    private RefreshToken byId(Long id) {
+        return rows.values().stream().filter(row -> row.getId().equals(id)).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,81 @@
+package com.examplatform.service;
+
+import com.examplatform.service.UserImportService.Format;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RosterReaderTest {
+
+    private static List<RosterReader.Entry> read(String text, Format format) throws Exception {
+        List<RosterReader.Entry> entries = new ArrayList<>();
+        try (RosterReader reader = new RosterReader(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), format, new ObjectMapper())) {
+            reader.forEachRemaining(entries::add);
+        }
+        return entries;
+    }
+
+    @Test
+    void csv_mapsColumnsByHeader_andKeepsLineNumbers() throws Exception {
+        List<RosterReader.Entry> entries = read("""
+                Role,EMAIL,password,firstName,lastName,courseIds
+                STUDENT,a@uni.edu,pw1,"Smith, Jr.",Ann,3;7
+
+                INSTRUCTOR,b@uni.edu,pw2,Bo,"O""Neil",
+                """, Format.CSV);
+
+        assertEquals(2, entries.size());
+        RosterReader.Entry ann = entries.get(0);
+        assertEquals(2, ann.line());
+        assertEquals("a@uni.edu", ann.email());
+        assertEquals("Smith, Jr.", ann.firstName());
+        assertEquals(List.of(3L, 7L), ann.courseIds());
+        assertNull(ann.error());
+
+        RosterReader.Entry bo = entries.get(1);
+        assertEquals(4, bo.line());
+        assertEquals("O\"Neil", bo.lastName());
+        assertEquals(List.of(), bo.courseIds());
+    }
+
+    @Test
+    void csv_badLineIsReported_notFatal() throws Exception {
+        List<RosterReader.Entry> entries = read("""
+                email,password,role,courseIds
+                a@uni.edu,pw,STUDENT,x1
+                "b@uni.edu,pw,STUDENT,
+                c@uni.edu,pw,STUDENT,1
+                """, Format.CSV);
+
+        assertEquals(3, entries.size());
+        assertNotNull(entries.get(0).error());
+        assertNotNull(entries.get(1).error());
+        assertNull(entries.get(2).error());
+    }
+
+    @Test
+    void csv_requiresEmailColumn() {
+        assertThrows(IllegalArgumentException.class, () -> read("name,password\nx,y\n", Format.CSV));
+    }
+
+    @Test
+    void ndjson_acceptsArrayOrStringCourseIds() throws Exception {
+        List<RosterReader.Entry> entries = read("""
+                {"email":"a@uni.edu","password":"pw","role":"STUDENT","courseIds":[1,2]}
+                {"email":"b@uni.edu","password":"pw","role":"STUDENT","courseIds":"4|5"}
+                not json
+                """, Format.NDJSON);
+
+        assertEquals(List.of(1L, 2L), entries.get(0).courseIds());
+        assertEquals(List.of(4L, 5L), entries.get(1).courseIds());
+        assertEquals("Malformed JSON", entries.get(2).error());
+        assertEquals(3, entries.get(2).line());
+    }
+}
@@ -0,0 +1,70 @@
+package com.examplatform.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoreSketchTest {
+
+    private static ScoreSketch of(int... scores) {
+        ScoreSketch sketch = new ScoreSketch();
+        for (int s : scores) {
+            sketch.add(s);
+        }
+        return sketch;
+    }
+
+    @Test
+    void quantile_isNearestRank() {
+        ScoreSketch sketch = of(10, 20, 30, 40, 50, 60, 70, 80, 90, 100);
+        assertEquals(10, sketch.quantile(0));
+        assertEquals(50, sketch.quantile(0.5));
+        assertEquals(90, sketch.quantile(0.9));
+        assertEquals(100, sketch.quantile(0.91));
+        assertEquals(100, sketch.quantile(1));
+        assertEquals(55.0, sketch.mean(), 1e-9);
+        assertEquals(10, sketch.min());
+        assertEquals(100, sketch.max());
+    }
+
+    @Test
+    void emptySketch_reportsMinusOne() {
+        ScoreSketch sketch = new ScoreSketch();
+        assertEquals(0, sketch.count());
+        assertEquals(-1, sketch.quantile(0.5));
+        assertEquals(-1, sketch.min());
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.5));
+    }
+
+    @Test
+    void merge_equalsSketchOfBothInputs() {
+        ScoreSketch a = of(1, 5, 5, 9);
+        a.merge(of(0, 200, 5));
+        ScoreSketch expected = of(1, 5, 5, 9, 0, 200, 5);
+        assertEquals(expected.count(), a.count());
+        for (double q = 0; q <= 1; q += 0.05) {
+            assertEquals(expected.quantile(q), a.quantile(q), "q=" + q);
+        }
+    }
+
+    @Test
+    void bytes_roundTrip_andStayCompact() {
+        ScoreSketch sketch = new ScoreSketch();
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add(i % 101);
+        }
+        byte[] bytes = sketch.toBytes();
+        assertTrue(bytes.length < 400, "encoded size " + bytes.length);
+
+        ScoreSketch copy = ScoreSketch.fromBytes(bytes);
+        assertEquals(sketch.count(), copy.count());
+        assertEquals(sketch.quantile(0.37), copy.quantile(0.37));
+        assertEquals(sketch.max(), copy.max());
+    }
+
+    @Test
+    void fromBytes_rejectsGarbage() {
+        assertThrows(IllegalArgumentException.class, () -> ScoreSketch.fromBytes(new byte[]{9, 1, 2}));
+        assertThrows(IllegalArgumentException.class, () -> ScoreSketch.fromBytes(new byte[]{1, 3, 0}));
+    }
+}
@@ -0,0 +1,106 @@
+package com.examplatform.service;
+
+import com.examplatform.model.ExamResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/** The flusher thread against a mocked persistence context; rows get ids as they are persisted. */
+class SubmissionPipelineTest {
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final StudentCourseAggregateService aggregates = mock(StudentCourseAggregateService.class);
+    private final ScoreSketchService scoreSketches = mock(ScoreSketchService.class);
+    private final ExamLeaderboardService leaderboards = mock(ExamLeaderboardService.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final AtomicLong ids = new AtomicLong();
+    private final List<Integer> persistedScores = new ArrayList<>();
+    private SubmissionPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        doAnswer(call -> {
+            ExamResult row = call.getArgument(0);
+            if (row.getScore() < 0) {
+                throw new IllegalArgumentException("bad row");
+            }
+            row.setId(ids.incrementAndGet());
+            synchronized (persistedScores) {
+                persistedScores.add(row.getScore());
+            }
+            return null;
+        }).when(entityManager).persist(any(ExamResult.class));
+
+        // Long flush interval: everything submitted together lands in one batch
+        pipeline = new SubmissionPipeline(transactionManager, aggregates, scoreSketches, leaderboards,
+                new SimpleMeterRegistry(), 100, 10, 200, 5_000);
+        ReflectionTestUtils.setField(pipeline, "entityManager", entityManager);
+        pipeline.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pipeline.stop();
+    }
+
+    @Test
+    void failingSideEffect_afterCommit_neitherRepersistsNorFailsTheAck() throws Exception {
+        doThrow(new IllegalStateException("leaderboard unavailable")).when(leaderboards).record(anyLong(), any());
+
+        List<CompletableFuture<SubmissionPipeline.Receipt>> receipts = submitAll(10, 20, 30);
+
+        for (CompletableFuture<SubmissionPipeline.Receipt> receipt : receipts) {
+            assertFalse(receipt.get(5, TimeUnit.SECONDS).pending());
+        }
+        assertEquals(List.of(10, 20, 30), sorted(persistedScores), "each row persisted exactly once");
+        verify(scoreSketches, times(3)).record(anyLong(), anyInt());
+    }
+
+    @Test
+    void badRow_failsAlone_andTheRestCommitOnce() throws Exception {
+        List<CompletableFuture<SubmissionPipeline.Receipt>> receipts = submitAll(10, -1, 30);
+
+        assertFalse(receipts.get(0).get(5, TimeUnit.SECONDS).pending());
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> receipts.get(1).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(SubmissionPipeline.WriteFailedException.class, failure.getCause());
+        assertFalse(receipts.get(2).get(5, TimeUnit.SECONDS).pending());
+        verify(scoreSketches, times(2)).record(anyLong(), anyInt());
+        verify(leaderboards, times(2)).record(anyLong(), any());
+    }
+
+    private List<CompletableFuture<SubmissionPipeline.Receipt>> submitAll(int... scores) {
+        List<CompletableFuture<SubmissionPipeline.Receipt>> receipts = new ArrayList<>();
+        for (int i = 0; i < scores.length; i++) {
+            SubmissionPipeline.PendingResult result = new SubmissionPipeline.PendingResult(
+                    100L + i, 1L, 1L, scores[i], 40, "PASS", Instant.now());
+            receipts.add(CompletableFuture.supplyAsync(() -> pipeline.submit(result)));
+        }
+        return receipts;
+    }
+
+    private static List<Integer> sorted(List<Integer> scores) {
+        synchronized (scores) {
+            return scores.stream().sorted().toList();
+        }
+    }
+}
@@ -9,25 +9,31 @@ import {
   Grid,
   CircularProgress,
   Snackbar,
-  Alert
+  Alert,
+  TextField
 } from '@mui/material';
 import api from '../../services/api';
 
 function AvailableCourses() {
   const [courses, setCourses] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [query, setQuery] = useState('');
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState('');
   const [snackbar, setSnackbar] = useState({ open: false, message: '', severity: 'success' });
 
   useEffect(() => {
-    loadAvailableCourses();
-  }, []);
+    const timer = setTimeout(() => loadAvailableCourses(query), 300);
+    return () => clearTimeout(timer);
+  }, [query]);
 
-  const loadAvailableCourses = async () => {
+  const loadAvailableCourses = async (q = query) => {
     try {
       setLoading(true);
-      const data = await api.student.getAvailableCourses();
-      setCourses(Array.isArray(data) ? data : []);
+      const page = await api.student.getCourseCatalog({ q });
+      setCourses(page?.items || []);
+      setNextCursor(page?.nextCursor || null);
     } catch (err) {
       setError('Failed to load available courses');
       console.error(err);
@@ -36,9 +42,31 @@ function AvailableCourses() {
     }
   };
 
+  const loadMore = async () => {
+    try {
+      setLoadingMore(true);
+      const page = await api.student.getCourseCatalog({ q: query, after: nextCursor });
+      setCourses((prev) => [...prev, ...(page?.items || [])]);
+      setNextCursor(page?.nextCursor || null);
+    } catch (err) {
+      setError('Failed to load available courses');
+      console.error(err);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleEnroll = async (courseId) => {
     try {
-      await api.student.enrollInCourse(courseId);
+      const result = await api.student.enrollInCourse(courseId);
+      if (result?.status === 'WAITLISTED') {
+        setSnackbar({
+          open: true,
+          message: `Course is full. You are #${result.waitlistPosition} of ${result.waitlistSize} on the waitlist.`,
+          severity: 'info'
+        });
+        return;
+      }
       setSnackbar({
         open: true,
         message: 'Successfully enrolled in course!',
@@ -54,26 +82,34 @@ function AvailableCourses() {
     }
   };
 
-  if (loading) {
-    return (
-      <Box display="flex" justifyContent="center" alignItems="center" minHeight="200px">
-        <CircularProgress />
-      </Box>
-    );
-  }
-
   return (
     <Box p={3}>
       <Typography variant="h5" gutterBottom>
         Available Courses
       </Typography>
 
+      <TextField
+        fullWidth
+        size="small"
+        placeholder="Search by name or description"
+        value={query}
+        onChange={(e) => setQuery(e.target.value)}
+        sx={{ mb: 2 }}
+      />
+
+      {loading && (
+        <Box display="flex" justifyContent="center" alignItems="center" minHeight="200px">
+          <CircularProgress />
+        </Box>
+      )}
+
       {error && (
         <Typography color="error" gutterBottom>
           {error}
         </Typography>
       )}
 
+      {!loading && (
       <Grid container spacing={3}>
         {courses.map((course) => (
           <Grid item xs={12} sm={6} md={4} key={course.id}>
@@ -86,7 +122,7 @@ function AvailableCourses() {
                   {course.description}
                 </Typography>
                 <Typography variant="body2" color="text.secondary" sx={{ mt: 1 }}>
-                  Instructor: {course.instructor?.email || 'Not assigned'}
+                  Seats remaining: {course.seatsRemaining}
                 </Typography>
               </CardContent>
               <CardActions>
@@ -95,7 +131,7 @@ function AvailableCourses() {
                   color="primary"
                   onClick={() => handleEnroll(course.id)}
                 >
-                  Enroll Now
+                  {course.seatsRemaining > 0 ? 'Enroll Now' : 'Join Waitlist'}
                 </Button>
               </CardActions>
             </Card>
@@ -107,6 +143,15 @@ function AvailableCourses() {
           </Grid>
         )}
       </Grid>
+      )}
+
+      {!loading && nextCursor && (
+        <Box display="flex" justifyContent="center" mt={3}>
+          <Button variant="outlined" onClick={loadMore} disabled={loadingMore}>
+            {loadingMore ? 'Loading...' : 'Load more'}
+          </Button>
+        </Box>
+      )}
 
       <Snackbar
         open={snackbar.open}
@@ -314,7 +314,7 @@ function StudentDashboard() {
                                         Total Score: {exam.totalScore}
                                     </Typography>
                                     <Typography variant="body2">
-                                        Attempts Allowed: {exam.maxAttempts}
+                                        Attempts Used: {exam.attemptsUsed ?? 0}/{exam.maxAttempts}
                                     </Typography>
                                     {examResult ? (
                                         <Typography
@@ -40,12 +40,19 @@ function InstructorDashboard() {
     }
   };
 
-  const handleEditExam = (exam) => {
-    if (!exam) {
+  // The exam list only has summaries; load the questions before opening the editor
+  const handleEditExam = async (examSummary) => {
+    if (!examSummary) {
       return;
     }
-    navigate(`/instructor/exams/${exam.id}/edit`, { state: { exam } });
-    setExamDialog({ open: true, mode: "edit", exam });
+    try {
+      const exam = await api.instructor.getExam(examSummary.id);
+      navigate(`/instructor/exams/${exam.id}/edit`, { state: { exam } });
+      setExamDialog({ open: true, mode: "edit", exam });
+    } catch (err) {
+      console.error("Failed to load exam:", err);
+      setError("Failed to load exam");
+    }
   };
 
   // Load instructor's courses
@@ -95,21 +102,32 @@ function InstructorDashboard() {
       return;
     }
 
-    const matchedExam =
-      examFromRouteState ||
-      myExams.find((exam) => String(exam.id) === String(routeExamId));
+    const openEditor = (matchedExam) =>
+      setExamDialog((prev) => {
+        if (prev.open && prev.mode === "edit" && prev.exam?.id === matchedExam.id) {
+          return prev;
+        }
+        return { open: true, mode: "edit", exam: matchedExam };
+      });
 
-    if (!matchedExam) {
+    if (examFromRouteState) {
+      openEditor(examFromRouteState);
       return;
     }
-
-    setExamDialog((prev) => {
-      if (prev.open && prev.mode === "edit" && prev.exam?.id === matchedExam.id) {
-        return prev;
-      }
-      return { open: true, mode: "edit", exam: matchedExam };
-    });
-  }, [routeExamId, examFromRouteState, myExams]);
+    // Deep link or reload: fetch the full exam
+    let cancelled = false;
+    api.instructor
+      .getExam(routeExamId)
+      .then((exam) => {
+        if (!cancelled && exam) {
+          openEditor(exam);
+        }
+      })
+      .catch((err) => console.error("Failed to load exam:", err));
+    return () => {
+      cancelled = true;
+    };
+  }, [routeExamId, examFromRouteState]);
 
   // When an exam is added, reload the exams list.
   const handleAddExam = async (examData) => {
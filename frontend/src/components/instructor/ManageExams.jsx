@@ -94,7 +94,7 @@ const ManageExams = ({ exams, refreshExams, onEditExam }) => {
                   }}
                 >
                   <TableCell sx={{ fontWeight: 600 }}>{exam.title}</TableCell>
-                  <TableCell>{exam.course?.name || "N/A"}</TableCell>
+                  <TableCell>{exam.courseName || "N/A"}</TableCell>
                   <TableCell>{exam.duration}</TableCell>
                   <TableCell>{exam.numberOfQuestions || "All"}</TableCell>
                   <TableCell>
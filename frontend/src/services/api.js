@@ -1,5 +1,5 @@
 import axiosInstance from '../utils/axiosConfig';
-import {setToken} from "../services/token.js"
+import {setToken, setRefreshToken} from "../services/token.js"
 
 const handleApiError = (error) => {
   if (error.response) {
@@ -23,6 +23,7 @@ const api = {
           password: credentials.password,
         });
         setToken(response.data.accessToken)
+        setRefreshToken(response.data.refreshToken)
         console.log('Login response:', response.data);
         return response.data;
       } catch (error) {
@@ -197,9 +198,26 @@ const api = {
         handleApiError(error);
       }
     },
-    getMyExams: async () => {
+    // The listing is keyset-paginated; follow nextCursor until the last page
+    getMyExams: async (published) => {
       try {
-        const response = await axiosInstance.get('/api/instructor/exams');
+        const exams = [];
+        let after;
+        do {
+          const response = await axiosInstance.get('/api/instructor/exams', {
+            params: { published, after, limit: 100 },
+          });
+          exams.push(...response.data.items);
+          after = response.data.nextCursor;
+        } while (after);
+        return exams;
+      } catch (error) {
+        handleApiError(error);
+      }
+    },
+    getExam: async (examId) => {
+      try {
+        const response = await axiosInstance.get(`/api/instructor/exams/${examId}`);
         return response.data;
       } catch (error) {
         handleApiError(error);
@@ -216,10 +234,28 @@ const api = {
         return [];
       }
     },
+    getCourseCatalog: async ({ q, after, limit = 50 } = {}) => {
+      try {
+        const response = await axiosInstance.get('/api/students/courses/available', {
+          params: { q: q || undefined, after, limit },
+        });
+        return response.data;
+      } catch (error) {
+        handleApiError(error);
+      }
+    },
     getAvailableCourses: async () => {
       try {
-        const response = await axiosInstance.get('/api/students/courses/available');
-        return Array.isArray(response.data) ? response.data : [];
+        const courses = [];
+        let after;
+        do {
+          const response = await axiosInstance.get('/api/students/courses/available', {
+            params: { after, limit: 100 },
+          });
+          courses.push(...response.data.items);
+          after = response.data.nextCursor;
+        } while (after);
+        return courses;
       } catch (error) {
         handleApiError(error);
       }
@@ -232,6 +268,21 @@ const api = {
         handleApiError(error);
       }
     },
+    getEnrollmentStatus: async (courseId) => {
+      try {
+        const response = await axiosInstance.get(`/api/students/courses/${courseId}/enroll`);
+        return response.data;
+      } catch (error) {
+        handleApiError(error);
+      }
+    },
+    leaveCourse: async (courseId) => {
+      try {
+        await axiosInstance.delete(`/api/students/courses/${courseId}/enroll`);
+      } catch (error) {
+        handleApiError(error);
+      }
+    },
     getAvailableExams: async () => {
       try {
         const response = await axiosInstance.get('/api/students/exams');
@@ -1,5 +1,6 @@
 // src/auth/token.js
 let accessToken = localStorage.getItem("accessToken");
+let refreshToken = localStorage.getItem("refreshToken");
 
 export function setToken(token) {
     accessToken = token || null;
@@ -9,7 +10,17 @@ export function setToken(token) {
 
 export function getToken() { return accessToken; }
 
+export function setRefreshToken(token) {
+    refreshToken = token || null;
+    if (token) localStorage.setItem("refreshToken", token);
+    else localStorage.removeItem("refreshToken");
+}
+
+export function getRefreshToken() { return refreshToken; }
+
 export function clearToken() {
     accessToken = null;
+    refreshToken = null;
     localStorage.removeItem("accessToken");
+    localStorage.removeItem("refreshToken");
 }
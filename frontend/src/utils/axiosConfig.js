@@ -1,6 +1,6 @@
 // src/api/axiosInstance.js
 import axios from "axios";
-import { getToken } from "../services/token.js";
+import { getToken, setToken, getRefreshToken, setRefreshToken } from "../services/token.js";
 
 const axiosInstance = axios.create({
     baseURL: import.meta.env.VITE_API_URL || "http://localhost:8080",
@@ -28,10 +28,42 @@ axiosInstance.interceptors.request.use(
     (error) => Promise.reject(error)
 );
 
+// Access tokens are short-lived; trade the refresh token for a new pair once and retry.
+// Concurrent failures share one refresh call, since each refresh token is single-use.
+let refreshing = null;
+
+function refreshAccessToken() {
+    if (!refreshing) {
+        refreshing = axios
+            .post(`${axiosInstance.defaults.baseURL}/api/auth/refresh`, { refreshToken: getRefreshToken() })
+            .then(({ data }) => {
+                setToken(data.accessToken);
+                setRefreshToken(data.refreshToken);
+                return data.accessToken;
+            })
+            .finally(() => { refreshing = null; });
+    }
+    return refreshing;
+}
+
 // ONE response interceptor
 axiosInstance.interceptors.response.use(
     (res) => res,
-    (error) => {
+    async (error) => {
+        const original = error.config;
+        const status = error.response?.status;
+        if ((status === 401 || status === 403) && original && !original._retried
+                && getRefreshToken() && !original.url?.startsWith("/api/auth/")) {
+            original._retried = true;
+            try {
+                const token = await refreshAccessToken();
+                original.headers.Authorization = `Bearer ${token}`;
+                return axiosInstance(original);
+            } catch {
+                // fall through and report the original failure
+            }
+        }
+
         if (error.code === "ECONNABORTED") {
             return Promise.reject(new Error("Request timeout - please try again"));
         }